@@ -50,6 +50,22 @@ blossom {
     replaceToken("@ID@", projectId)
 }
 
+val jmhVersion = "1.37"
+
+// Headless microbenchmarks for the stat pipeline, run with ./gradlew jmh [-Pjmh.include=<regex>]
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+}
+
+// Offline load test: a stub Hypixel/Urchin server plus a harness driving StatWorld, run with ./gradlew loadTest
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+    // Serves the same recorded player the benchmarks parse
+    resources.srcDir("src/jmh/resources")
+}
+
 repositories {
     mavenCentral()
 }
@@ -58,6 +74,9 @@ dependencies {
     minecraft("com.mojang:minecraft:$mcVersion")
     mappings("de.oceanlabs.mcp:mcp_stable:22-1.8.9")
     forge("net.minecraftforge:forge:1.8.9-11.15.1.2318-1.8.9")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 tasks {
@@ -87,6 +106,45 @@ tasks {
         }
     }
 
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the JMH benchmarks with the GC profiler."
+        classpath = jmh.runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+
+        val results = layout.buildDirectory.file("reports/jmh/results.json")
+        outputs.upToDateWhen { false }
+        doFirst {
+            results.get().asFile.parentFile.mkdirs()
+        }
+
+        findProperty("jmh.include")?.toString()?.let { args(it) }
+        args("-prof", "gc", "-rf", "json", "-rff", results.get().asFile.absolutePath)
+    }
+
+    register<JavaExec>("loadTest") {
+        group = "verification"
+        description = "Runs the offline load-test harness, pass options with -Ploadtest.args=\"--scenario=chaos --lobbies=10\"" +
+                " and -Ploadtest.keepHome to start from the previous run's on-disk caches."
+        classpath = loadtest.runtimeClasspath
+        mainClass.set("tabstats.loadtest.LoadTestHarness")
+
+        // Private home so the config and on-disk caches start empty and the real ones are never touched,
+        // kept with -Ploadtest.keepHome to measure a warm start
+        val home = layout.buildDirectory.dir("loadtest/home")
+        val keepHome = hasProperty("loadtest.keepHome")
+        systemProperty("user.home", home.get().asFile.absolutePath)
+        outputs.upToDateWhen { false }
+        doFirst {
+            if (!keepHome) {
+                home.get().asFile.deleteRecursively()
+            }
+            home.get().asFile.mkdirs()
+        }
+
+        findProperty("loadtest.args")?.toString()?.let { args(it.split(" ").filter(String::isNotBlank)) }
+    }
+
     jar {
         archiveBaseName.set(projectName)
         duplicatesStrategy = DuplicatesStrategy.EXCLUDE
@@ -0,0 +1,84 @@
+package tabstats.playerapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identity lookups against a full lobby, done once per tab row per frame, and the alias upkeep of a
+ * player coming and going.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatWorldBenchmark {
+    private static final int LOBBY_SIZE = 100;
+
+    private StatWorld statWorld;
+    private UUID[] known;
+    private UUID[] unknown;
+    private String[] names;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        this.statWorld = new StatWorld();
+        this.known = new UUID[LOBBY_SIZE];
+        this.unknown = new UUID[LOBBY_SIZE];
+        this.names = new String[LOBBY_SIZE];
+
+        for (int i = 0; i < LOBBY_SIZE; i++) {
+            this.known[i] = new UUID(0x4000L | i, 0x8000000000000000L | i);
+            this.unknown[i] = new UUID(0x2000L | i, 0x8000000000000000L | i);
+            this.names[i] = "Player" + i;
+            this.statWorld.addPlayer(this.known[i], new HPlayer(this.known[i].toString(), this.names[i]));
+        }
+    }
+
+    @Benchmark
+    public HPlayer byUuid() {
+        int i = this.cursor++ % LOBBY_SIZE;
+        return this.statWorld.getPlayerByIdentity(this.known[i], this.names[i]);
+    }
+
+    /* Nicked or re-logged players, found through the name fallback */
+    @Benchmark
+    public HPlayer byAlias() {
+        int i = this.cursor++ % LOBBY_SIZE;
+        return this.statWorld.getPlayerByIdentity(this.unknown[i], "§7" + this.names[i], this.names[i]);
+    }
+
+    @Benchmark
+    public HPlayer miss() {
+        int i = this.cursor++ % LOBBY_SIZE;
+        return this.statWorld.getPlayerByIdentity(this.unknown[i], "Stranger" + i);
+    }
+
+    /* Bedwars player labels, was a scan over every cached player */
+    @Benchmark
+    public HPlayer byName() {
+        int i = this.cursor++ % LOBBY_SIZE;
+        return this.statWorld.getPlayerByName(this.names[i]);
+    }
+
+    /* One eviction's worth of alias removal, was a scan over every alias */
+    @Benchmark
+    public void addAndRemove() {
+        int i = this.cursor++ % LOBBY_SIZE;
+        this.statWorld.addPlayer(this.unknown[i], new HPlayer(this.unknown[i].toString(), "Stranger" + i));
+        this.statWorld.removePlayer(this.unknown[i]);
+    }
+}
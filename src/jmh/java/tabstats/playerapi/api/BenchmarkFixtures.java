@@ -0,0 +1,57 @@
+package tabstats.playerapi.api;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the JSON fixtures under /fixtures. They mirror the shape and size of real responses
+ * (a long-time player with every game section filled in) without containing anyone's data.
+ */
+public final class BenchmarkFixtures {
+    public static final String HYPIXEL_PLAYER = "hypixel-player.json";
+    public static final String URCHIN_PLAYERS = "urchin-players.json";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static String read(String name) {
+        InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name);
+        if (in == null) {
+            throw new IllegalStateException("Missing fixture " + name);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read fixture " + name, e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return The player fixture as {@link HypixelAPI#getWholeObject(String)} would hand it to the game classes
+     */
+    public static JsonObject projectedPlayer() {
+        try {
+            return PlayerResponseReader.read(new StringReader(read(HYPIXEL_PLAYER))).projectedObject;
+        } catch (IOException e) {
+            throw new IllegalStateException("Player fixture is not valid JSON", e);
+        }
+    }
+
+    public static JsonObject parse(String json) {
+        return new JsonParser().parse(json).getAsJsonObject();
+    }
+}
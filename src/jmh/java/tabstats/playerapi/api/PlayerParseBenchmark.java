@@ -0,0 +1,47 @@
+package tabstats.playerapi.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a /v2/player body into what the game classes read. The tree parse is what
+ * every lookup used to pay before responses were streamed and projected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerParseBenchmark {
+    private String body;
+
+    @Setup
+    public void setup() {
+        this.body = BenchmarkFixtures.read(BenchmarkFixtures.HYPIXEL_PLAYER);
+    }
+
+    @Benchmark
+    public PlayerResponseReader.PlayerResponse streamProjected() throws IOException {
+        return PlayerResponseReader.read(new StringReader(this.body));
+    }
+
+    @Benchmark
+    public JsonElement treeParse() {
+        return new JsonParser().parse(this.body);
+    }
+}
@@ -0,0 +1,53 @@
+package tabstats.playerapi.api;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a 16 player Urchin batch, the size of a full Bedwars lobby lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrchinParseBenchmark {
+    private String body;
+    private JsonObject payload;
+    private List<String> usernames;
+
+    @Setup
+    public void setup() {
+        this.body = BenchmarkFixtures.read(BenchmarkFixtures.URCHIN_PLAYERS);
+        this.payload = BenchmarkFixtures.parse(this.body);
+        this.usernames = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : this.payload.getAsJsonObject("players").entrySet()) {
+            this.usernames.add(entry.getKey());
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<UrchinAPI.UrchinReport>> parseReports() {
+        return UrchinAPI.parsePlayerReports(this.payload, this.usernames);
+    }
+
+    @Benchmark
+    public Map<String, List<UrchinAPI.UrchinReport>> parseBody() {
+        return UrchinAPI.parsePlayerReports(BenchmarkFixtures.parse(this.body), this.usernames);
+    }
+}
@@ -0,0 +1,80 @@
+package tabstats.playerapi.api.games;
+
+import tabstats.util.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threshold table lookups against the if chains they replaced, for a short ratio scale and the
+ * longest count scale. Inputs are spread over every band so neither side always takes the same branch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorThresholdsBenchmark {
+    private static final double[] RATIOS = {0.4, 1.2, 2.9, 4.1, 7.5, 12.0, 33.3, 75.0, 150.0, 0.0, 1.5, 3.49};
+    private static final int[] COUNTS = {0, 150, 480, 900, 1500, 3000, 7000, 15000, 40000, 80000, 150000, 250000};
+
+    private final ColorThresholds fkdrTable = ColorThresholds.get("bedwars.fkdr");
+    private final ColorThresholds killsTable = ColorThresholds.get("duels.kills");
+    private int cursor;
+
+    @Benchmark
+    public ChatColor fkdrChain() {
+        return fkdrChain(RATIOS[this.cursor++ % RATIOS.length]);
+    }
+
+    @Benchmark
+    public ChatColor fkdrTable() {
+        return this.fkdrTable.colorOf(RATIOS[this.cursor++ % RATIOS.length]);
+    }
+
+    @Benchmark
+    public ChatColor killsChain() {
+        return killsChain(COUNTS[this.cursor++ % COUNTS.length]);
+    }
+
+    @Benchmark
+    public ChatColor killsTable() {
+        return this.killsTable.colorOf(COUNTS[this.cursor++ % COUNTS.length]);
+    }
+
+    /* BedwarsUtil.getFkdrColor before the tables */
+    private static ChatColor fkdrChain(double fkdr) {
+        if (fkdr < 1.5) return ChatColor.GRAY;
+        if (fkdr < 3.5) return ChatColor.WHITE;
+        if (fkdr < 5) return ChatColor.GOLD;
+        if (fkdr < 10) return ChatColor.DARK_GREEN;
+        if (fkdr < 20) return ChatColor.RED;
+        if (fkdr < 50) return ChatColor.DARK_RED;
+        if (fkdr < 100) return ChatColor.LIGHT_PURPLE;
+        return ChatColor.DARK_PURPLE;
+    }
+
+    /* DuelsUtil.getKillsColor before the tables */
+    private static ChatColor killsChain(int kills) {
+        if (kills >= 200000) return ChatColor.GOLD;
+        if (kills >= 100000) return ChatColor.LIGHT_PURPLE;
+        if (kills >= 50000) return ChatColor.AQUA;
+        if (kills >= 20000) return ChatColor.DARK_PURPLE;
+        if (kills >= 10000) return ChatColor.YELLOW;
+        if (kills >= 4000) return ChatColor.DARK_RED;
+        if (kills >= 2000) return ChatColor.DARK_GREEN;
+        if (kills >= 1000) return ChatColor.DARK_AQUA;
+        if (kills >= 500) return ChatColor.GOLD;
+        if (kills >= 200) return ChatColor.WHITE;
+        return ChatColor.GRAY;
+    }
+}
@@ -0,0 +1,93 @@
+package tabstats.playerapi.api.games;
+
+import tabstats.playerapi.api.BenchmarkFixtures;
+import tabstats.playerapi.api.games.bedwars.Bedwars;
+import tabstats.playerapi.api.games.duels.Duels;
+import tabstats.playerapi.api.games.skywars.Skywars;
+import tabstats.util.ChatColor;
+import tabstats.util.Handler;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the per-game stat objects from a projected player, and the formatting helpers the
+ * tab list leans on for every row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStatsBenchmark {
+    private static final String NAME = "Technoblade";
+    private static final String UUID = "f7c77d999f154a66a87dc4a51ef30d19";
+    /* Spread over every prestige so the style lookup is not always the same branch */
+    private static final int[] STARS = {0, 7, 99, 150, 420, 999, 1050, 1337, 2100, 3000, 4999, 5000};
+
+    private JsonObject projected;
+    private Bedwars bedwars;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        this.projected = BenchmarkFixtures.projectedPlayer();
+        this.bedwars = new Bedwars(NAME, UUID, this.projected);
+    }
+
+    @Benchmark
+    public Bedwars constructBedwars() {
+        return new Bedwars(NAME, UUID, this.projected);
+    }
+
+    @Benchmark
+    public Duels constructDuels() {
+        return new Duels(NAME, UUID, this.projected);
+    }
+
+    @Benchmark
+    public Skywars constructSkywars() {
+        return new Skywars(NAME, UUID, this.projected);
+    }
+
+    @Benchmark
+    public Bedwars bedwarsFormattedStatList() {
+        // Rebuilds the columns from the already read record
+        this.bedwars.setFormattedStatList();
+        return this.bedwars;
+    }
+
+    @Benchmark
+    public String starWithColor() {
+        int star = STARS[this.cursor++ % STARS.length];
+        return this.bedwars.getStarWithColor(star);
+    }
+
+    @Benchmark
+    public double formatDouble() {
+        int kills = 21544 + (this.cursor++ & 1023);
+        return this.bedwars.formatDouble(kills, 4311);
+    }
+
+    @Benchmark
+    public String formatRatio() {
+        int kills = 21544 + (this.cursor++ & 1023);
+        return HGameBase.formatRatio(ChatColor.GOLD, kills, 4311);
+    }
+
+    @Benchmark
+    public String plsSplit() {
+        return Handler.plsSplit(215.44 + (this.cursor++ & 1023) / 7D);
+    }
+}
@@ -0,0 +1,54 @@
+package tabstats.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Colour stripping and name keys as done for every tab row and alias, on typical formatted names.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatColorBenchmark {
+    private final String[] formatted = {
+            "§c[MVP§0++§c] Technoblade",
+            "§a[VIP] Player01",
+            "§7Player02",
+            "§b[MVP§2+§b] Player03§r §6✫",
+            "§l§cR §r§c[MVP§f+§c] Player04"
+    };
+    private final String[] plain = {"Technoblade", "Player01", "Player02", "Player03", "Player04"};
+    private int cursor;
+
+    @Benchmark
+    public String stripFormatted() {
+        return ChatColor.stripColor(this.formatted[this.cursor++ % this.formatted.length]);
+    }
+
+    @Benchmark
+    public String stripPlain() {
+        return ChatColor.stripColor(this.plain[this.cursor++ % this.plain.length]);
+    }
+
+    @Benchmark
+    public String normalizeFormatted() {
+        return NameKey.normalize(this.formatted[this.cursor++ % this.formatted.length]);
+    }
+
+    @Benchmark
+    public String nameKeyCached() {
+        return NameKey.of(this.formatted[this.cursor++ % this.formatted.length]);
+    }
+}
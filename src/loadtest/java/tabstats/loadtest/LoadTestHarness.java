@@ -0,0 +1,316 @@
+package tabstats.loadtest;
+
+import tabstats.config.ModConfig;
+import tabstats.metrics.MetricsReport;
+import tabstats.util.ChatColor;
+import tabstats.playerapi.FetchQueue;
+import tabstats.playerapi.LookupTarget;
+import tabstats.playerapi.StatWorld;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Drives {@link StatWorld} through a series of synthetic lobbies against {@link StubApiServer}
+ * and reports lookup latency, API requests spent per lobby and how busy the lookup threads were.
+ * Runs fully offline: both API endpoints are pointed at the stub before any API class loads.
+ *
+ * <p>Options: --scenario=clean|slow|throttle|ratelimit|flaky|malformed|chaos, --lobbies=N,
+ * --min-players=N, --max-players=N, --nicked=FRACTION, --urchin, --timeout=SECONDS, --seed=N</p>
+ */
+public final class LoadTestHarness {
+    private static final Pattern POOL_THREAD = Pattern.compile("TabStats-(io|cpu)-\\d+");
+    private static final long SAMPLE_MILLIS = 5L;
+    /* Urchin batches trail the stat lookups, wait this long without a new one before closing the lobby */
+    private static final long URCHIN_QUIET_MILLIS = 1000L;
+
+    private final StubApiServer server;
+    private final StatWorld statWorld;
+    private final Random random;
+    private final Options options;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private LoadTestHarness(StubApiServer server, StatWorld statWorld, Options options) {
+        this.server = server;
+        this.statWorld = statWorld;
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        StubApiServer server = new StubApiServer(options.scenario);
+        server.start();
+
+        // Must happen before HypixelAPI / UrchinAPI initialise, they read the endpoints once
+        System.setProperty("tabstats.hypixel.endpoint", server.getHypixelEndpoint());
+        System.setProperty("tabstats.urchin.endpoint", server.getUrchinEndpoint());
+
+        ModConfig config = ModConfig.getInstance();
+        config.setModEnabled(true);
+        config.setApiKey("loadtest-key");
+        config.setUrchinApiKey(options.urchin ? "loadtest-urchin-key" : "");
+
+        System.out.println("Scenario " + options.scenario);
+        System.out.printf(Locale.ROOT, "%d lobbies of %d-%d players, %.0f%% nicked, urchin %s%n%n",
+                options.lobbies, options.minPlayers, options.maxPlayers, options.nickedFraction * 100, options.urchin ? "on" : "off");
+
+        try {
+            new LoadTestHarness(server, new StatWorld(), options).run();
+        } finally {
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    private void run() throws InterruptedException {
+        List<Long> allLatencies = new ArrayList<>();
+        long totalRequests = 0L;
+        long totalPlayers = 0L;
+        long totalUnresolved = 0L;
+
+        System.out.println("lobby players resolved   p50ms   p90ms   p99ms   maxms  requests req/plr  429s thrtl  5xx  bad null urchin slots  poolcpu");
+        for (int lobby = 1; lobby <= this.options.lobbies; lobby++) {
+            LobbyResult result = runLobby(lobby);
+            allLatencies.addAll(result.latencies);
+            totalRequests += result.hypixelRequests;
+            totalPlayers += result.players;
+            totalUnresolved += result.players - result.latencies.size();
+            System.out.println(result.format(lobby));
+        }
+
+        long[] sorted = sorted(allLatencies);
+        System.out.println();
+        System.out.printf(Locale.ROOT, "total: %d players, %d unresolved, latency p50 %d ms, p90 %d ms, p99 %d ms, max %d ms%n",
+                totalPlayers, totalUnresolved, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+        System.out.printf(Locale.ROOT, "requests: %d to Hypixel (%.2f per player, %.1f per lobby), %d lookups coalesced%n",
+                totalRequests, totalPlayers == 0 ? 0.0 : (double) totalRequests / totalPlayers,
+                (double) totalRequests / this.options.lobbies, this.statWorld.getCoalescedLookupCount());
+
+        // What the in-game overlay would have shown at the end of the run
+        System.out.println();
+        for (String line : MetricsReport.lines()) {
+            System.out.println(ChatColor.stripColor(line));
+        }
+    }
+
+    private LobbyResult runLobby(int lobby) throws InterruptedException {
+        this.statWorld.clearPlayers();
+        this.server.getCounters().reset();
+
+        int size = this.options.minPlayers + this.random.nextInt(this.options.maxPlayers - this.options.minPlayers + 1);
+        List<LookupTarget> targets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean nicked = this.random.nextDouble() < this.options.nickedFraction;
+            UUID uuid = randomUuid(nicked ? 1 : 4);
+            String name = String.format(Locale.ROOT, "L%dP%d_%04x", lobby, i, this.random.nextInt(0x10000));
+            this.server.registerPlayer(uuid, name);
+            targets.add(new LookupTarget(uuid, name, "§7" + name));
+        }
+
+        Map<Long, Long> cpuBefore = poolCpuTimes();
+        long started = System.nanoTime();
+        long[] submittedAt = new long[size];
+        for (int i = 0; i < size; i++) {
+            submittedAt[i] = System.nanoTime();
+            this.statWorld.fetchStats(targets.get(i), 0);
+        }
+
+        long deadline = started + TimeUnit.SECONDS.toNanos(this.options.timeoutSeconds);
+        boolean[] resolved = new boolean[size];
+        List<Long> latencies = new ArrayList<>(size);
+        long slotSamples = 0L;
+        long busySlots = 0L;
+        while (latencies.size() < size && System.nanoTime() < deadline) {
+            for (int i = 0; i < size; i++) {
+                if (!resolved[i] && this.statWorld.getPlayerByUUID(targets.get(i).getUuid()) != null) {
+                    resolved[i] = true;
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt[i]));
+                }
+            }
+
+            slotSamples++;
+            busySlots += this.statWorld.getRunningLookupCount();
+            Thread.sleep(SAMPLE_MILLIS);
+        }
+        long elapsed = System.nanoTime() - started;
+
+        if (this.options.urchin) {
+            awaitUrchinQuiet(deadline);
+        }
+
+        // Leave the lobby the way a world change would, anything still pending belongs to it only
+        this.statWorld.advanceWorldGeneration();
+
+        LobbyResult result = new LobbyResult();
+        result.players = size;
+        result.latencies = latencies;
+        StubApiServer.Counters counters = this.server.getCounters();
+        result.hypixelRequests = counters.hypixelRequests.get();
+        result.rateLimited = counters.rateLimited.get();
+        result.throttled = counters.throttled.get();
+        result.serverErrors = counters.serverErrors.get();
+        result.malformed = counters.malformed.get();
+        result.playerNull = counters.playerNull.get();
+        result.urchinRequests = counters.urchinRequests.get();
+        result.urchinNames = counters.urchinNames.get();
+        result.slotUtilisation = slotSamples == 0 ? 0.0 : (double) busySlots / (slotSamples * FetchQueue.MAX_CONCURRENT_LOOKUPS);
+        result.poolCpuUtilisation = poolCpuUtilisation(cpuBefore, elapsed);
+        return result;
+    }
+
+    private void awaitUrchinQuiet(long deadline) throws InterruptedException {
+        long last = this.server.getCounters().urchinRequests.get();
+        long quietSince = System.nanoTime();
+        while (System.nanoTime() < deadline && System.nanoTime() - quietSince < TimeUnit.MILLISECONDS.toNanos(URCHIN_QUIET_MILLIS)) {
+            Thread.sleep(50L);
+            long current = this.server.getCounters().urchinRequests.get();
+            if (current != last) {
+                last = current;
+                quietSince = System.nanoTime();
+            }
+        }
+    }
+
+    /* version 1 UUIDs are how Hypixel hands out nicks, 4 are real accounts */
+    private UUID randomUuid(int version) {
+        long most = (this.random.nextLong() & ~0xF000L) | ((long) version << 12);
+        long least = (this.random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    private Map<Long, Long> poolCpuTimes() {
+        Map<Long, Long> times = new HashMap<>();
+        if (!this.threads.isThreadCpuTimeSupported()) {
+            return times;
+        }
+
+        for (ThreadInfo info : this.threads.getThreadInfo(this.threads.getAllThreadIds())) {
+            if (info != null && POOL_THREAD.matcher(info.getThreadName()).matches()) {
+                long cpu = this.threads.getThreadCpuTime(info.getThreadId());
+                if (cpu >= 0) {
+                    times.put(info.getThreadId(), cpu);
+                }
+            }
+        }
+        return times;
+    }
+
+    /* CPU used by the io and cpu lanes during the lobby, as a fraction of all their threads running flat out */
+    private double poolCpuUtilisation(Map<Long, Long> before, long elapsedNanos) {
+        Map<Long, Long> after = poolCpuTimes();
+        if (after.isEmpty() || elapsedNanos <= 0) {
+            return 0.0;
+        }
+
+        long used = 0L;
+        for (Map.Entry<Long, Long> entry : after.entrySet()) {
+            used += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        return (double) used / ((double) elapsedNanos * after.size());
+    }
+
+    private static long[] sorted(List<Long> values) {
+        long[] sorted = new long[values.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = values.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /* nearest-rank, 0 when there is nothing to rank */
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static final class LobbyResult {
+        private int players;
+        private List<Long> latencies;
+        private long hypixelRequests;
+        private long rateLimited;
+        private long throttled;
+        private long serverErrors;
+        private long malformed;
+        private long playerNull;
+        private long urchinRequests;
+        private long urchinNames;
+        private double slotUtilisation;
+        private double poolCpuUtilisation;
+
+        private String format(int lobby) {
+            long[] sorted = sorted(this.latencies);
+            String urchin = this.urchinRequests == 0 ? "-" : this.urchinRequests + "/" + this.urchinNames;
+            return String.format(Locale.ROOT, "%5d %7d %8d %7d %7d %7d %7d %9d %7.2f %5d %5d %4d %4d %4d %6s %4.0f%% %7.1f%%",
+                    lobby, this.players, this.latencies.size(),
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100),
+                    this.hypixelRequests, (double) this.hypixelRequests / this.players,
+                    this.rateLimited, this.throttled, this.serverErrors, this.malformed, this.playerNull, urchin,
+                    this.slotUtilisation * 100, this.poolCpuUtilisation * 100);
+        }
+    }
+
+    private static final class Options {
+        private StubScenario scenario = StubScenario.named("clean");
+        private int lobbies = 5;
+        private int minPlayers = 16;
+        private int maxPlayers = 100;
+        private double nickedFraction = 0.05;
+        private boolean urchin;
+        private int timeoutSeconds = 120;
+        private long seed = 1893L;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] parts = arg.split("=", 2);
+                String value = parts.length > 1 ? parts[1] : "";
+                switch (parts[0]) {
+                    case "--scenario":
+                        options.scenario = StubScenario.named(value);
+                        break;
+                    case "--lobbies":
+                        options.lobbies = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--min-players":
+                        options.minPlayers = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--max-players":
+                        options.maxPlayers = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--nicked":
+                        options.nickedFraction = Double.parseDouble(value);
+                        break;
+                    case "--urchin":
+                        options.urchin = true;
+                        break;
+                    case "--timeout":
+                        options.timeoutSeconds = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            options.maxPlayers = Math.max(options.minPlayers, options.maxPlayers);
+            return options;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package tabstats.loadtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loopback stand-in for api.hypixel.net /v2/player and urchin.ws /player. Successful player
+ * responses are the recorded fixture with the requested UUID and name swapped in; everything
+ * else is decided per request by the {@link StubScenario}.
+ */
+public final class StubApiServer {
+    private static final String FIXTURE = "/fixtures/hypixel-player.json";
+    private static final String FIXTURE_UUID = "f7c77d999f154a66a87dc4a51ef30d19";
+    private static final String FIXTURE_NAME = "Technoblade";
+    private static final String[] URCHIN_TYPES = {"sniper", "possible_sniper", "legit_sniper", "confirmed_cheater", "blatant_cheater", "closet_cheater", "caution", "account", "info"};
+
+    private final StubScenario scenario;
+    private final String fixture;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Map<String, RateWindow> windows = new HashMap<>();
+    /* Requests left in the current 5xx burst, shared by every key like a real outage */
+    private final AtomicInteger burstRemaining = new AtomicInteger();
+    private final Counters counters = new Counters();
+
+    public StubApiServer(StubScenario scenario) throws IOException {
+        this.scenario = scenario;
+        this.fixture = readFixture();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        this.executor = Executors.newFixedThreadPool(64, runnable -> {
+            Thread thread = new Thread(runnable, "Stub-Http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/v2/player", this::handleHypixel);
+        this.server.createContext("/player", this::handleUrchin);
+    }
+
+    public void start() {
+        this.server.start();
+    }
+
+    public void stop() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    public String getHypixelEndpoint() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/v2/player";
+    }
+
+    public String getUrchinEndpoint() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/player";
+    }
+
+    /**
+     * Makes successful lookups for the UUID answer with this display name
+     */
+    public void registerPlayer(UUID uuid, String name) {
+        this.names.put(compact(uuid.toString()), name);
+    }
+
+    public Counters getCounters() {
+        return this.counters;
+    }
+
+    private void handleHypixel(HttpExchange exchange) throws IOException {
+        try {
+            this.counters.hypixelRequests.incrementAndGet();
+            simulateLatency();
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI());
+            String key = query.getOrDefault("key", "");
+            String uuid = compact(query.getOrDefault("uuid", ""));
+
+            if (ThreadLocalRandom.current().nextDouble() < this.scenario.malformedChance) {
+                this.counters.malformed.incrementAndGet();
+                // Cut off mid-object, the way a dropped proxy connection looks
+                String body = this.fixture.substring(0, this.fixture.length() / 3);
+                respond(exchange, 200, body, RateHeaders.NONE);
+                return;
+            }
+
+            if (inServerErrorBurst()) {
+                this.counters.serverErrors.incrementAndGet();
+                exchange.getResponseHeaders().set("Content-Type", "text/html");
+                respond(exchange, 502, "<html><body><h1>502 Bad Gateway</h1></body></html>", RateHeaders.NONE);
+                return;
+            }
+
+            RateHeaders headers = consumeRateLimit(key);
+            if (headers.remaining < 0) {
+                this.counters.rateLimited.incrementAndGet();
+                respond(exchange, 429, "{\"success\":false,\"cause\":\"Key throttle\",\"throttle\":true}", headers);
+                return;
+            }
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < this.scenario.globalThrottleChance) {
+                this.counters.throttled.incrementAndGet();
+                respond(exchange, 429, "{\"success\":false,\"cause\":\"Global throttle\",\"throttle\":true,\"global\":true}", headers);
+                return;
+            }
+            if (roll < this.scenario.globalThrottleChance + this.scenario.throttleChance) {
+                this.counters.throttled.incrementAndGet();
+                respond(exchange, 200, "{\"success\":false,\"cause\":\"Key throttle\",\"throttle\":true}", headers);
+                return;
+            }
+
+            boolean nicked = uuid.length() == 32 && uuid.charAt(12) == '1';
+            if (nicked || ThreadLocalRandom.current().nextDouble() < this.scenario.playerNullChance) {
+                this.counters.playerNull.incrementAndGet();
+                respond(exchange, 200, "{\"success\":true,\"player\":null}", headers);
+                return;
+            }
+
+            this.counters.ok.incrementAndGet();
+            String name = this.names.getOrDefault(uuid, "Player_" + uuid.substring(0, Math.min(8, uuid.length())));
+            respond(exchange, 200, this.fixture.replace(FIXTURE_UUID, uuid).replace(FIXTURE_NAME, name), headers);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleUrchin(HttpExchange exchange) throws IOException {
+        try {
+            this.counters.urchinRequests.incrementAndGet();
+            simulateLatency();
+
+            JsonElement request = new JsonParser().parse(new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8));
+            JsonArray usernames = request.getAsJsonObject().getAsJsonArray("usernames");
+            this.counters.urchinNames.addAndGet(usernames.size());
+
+            JsonObject players = new JsonObject();
+            Random random = ThreadLocalRandom.current();
+            for (JsonElement username : usernames) {
+                JsonArray reports = new JsonArray();
+                if (random.nextDouble() < this.scenario.urchinTagChance) {
+                    JsonObject report = new JsonObject();
+                    report.addProperty("type", URCHIN_TYPES[random.nextInt(URCHIN_TYPES.length)]);
+                    report.addProperty("reason", "Reported by the load-test stub");
+                    report.addProperty("added_on", "2024-05-01T12:00:00Z");
+                    reports.add(report);
+                }
+                players.add(username.getAsString(), reports);
+            }
+
+            JsonObject response = new JsonObject();
+            response.add("players", players);
+            respond(exchange, 200, response.toString(), RateHeaders.NONE);
+        } catch (RuntimeException ex) {
+            respond(exchange, 400, "{\"error\":\"Bad request\"}", RateHeaders.NONE);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency() {
+        long median = this.scenario.medianLatencyMillis;
+        long millis = median;
+        if (this.scenario.latencySigma > 0) {
+            millis = Math.round(median * Math.exp(this.scenario.latencySigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean inServerErrorBurst() {
+        while (true) {
+            int remaining = this.burstRemaining.get();
+            if (remaining > 0) {
+                if (this.burstRemaining.compareAndSet(remaining, remaining - 1)) {
+                    return true;
+                }
+                continue;
+            }
+
+            if (ThreadLocalRandom.current().nextDouble() >= this.scenario.serverErrorBurstChance) {
+                return false;
+            }
+            if (this.burstRemaining.compareAndSet(0, Math.max(0, this.scenario.serverErrorBurstLength - 1))) {
+                return true;
+            }
+        }
+    }
+
+    /* @return headers describing the key's budget after this request, remaining is -1 once it is spent */
+    private RateHeaders consumeRateLimit(String key) {
+        long now = System.currentTimeMillis();
+        long windowMillis = this.scenario.rateLimitWindowSeconds * 1000L;
+        synchronized (this.windows) {
+            RateWindow window = this.windows.get(key);
+            if (window == null || now >= window.startedAt + windowMillis) {
+                window = new RateWindow(now);
+                this.windows.put(key, window);
+            }
+
+            int reset = (int) Math.max(1L, (window.startedAt + windowMillis - now + 999L) / 1000L);
+            if (window.used >= this.scenario.rateLimit) {
+                return new RateHeaders(this.scenario.rateLimit, -1, reset);
+            }
+
+            window.used++;
+            return new RateHeaders(this.scenario.rateLimit, this.scenario.rateLimit - window.used, reset);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body, RateHeaders headers) throws IOException {
+        if (headers != RateHeaders.NONE) {
+            exchange.getResponseHeaders().set("RateLimit-Limit", Integer.toString(headers.limit));
+            exchange.getResponseHeaders().set("RateLimit-Remaining", Integer.toString(Math.max(0, headers.remaining)));
+            exchange.getResponseHeaders().set("RateLimit-Reset", Integer.toString(headers.resetSeconds));
+        }
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+
+        for (String pair : raw.split("&")) {
+            int split = pair.indexOf('=');
+            if (split > 0) {
+                query.put(pair.substring(0, split), pair.substring(split + 1));
+            }
+        }
+        return query;
+    }
+
+    private static String compact(String uuid) {
+        return uuid.replace("-", "").toLowerCase();
+    }
+
+    private static String readFixture() throws IOException {
+        try (InputStream in = StubApiServer.class.getResourceAsStream(FIXTURE)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + FIXTURE);
+            }
+            return new String(readAll(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class RateWindow {
+        private final long startedAt;
+        private int used;
+
+        private RateWindow(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    private static final class RateHeaders {
+        private static final RateHeaders NONE = new RateHeaders(0, 0, 0);
+
+        private final int limit;
+        private final int remaining;
+        private final int resetSeconds;
+
+        private RateHeaders(int limit, int remaining, int resetSeconds) {
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetSeconds = resetSeconds;
+        }
+    }
+
+    /**
+     * Running totals of what the stub answered, read and reset by the harness between lobbies
+     */
+    public static final class Counters {
+        final AtomicLong hypixelRequests = new AtomicLong();
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong rateLimited = new AtomicLong();
+        final AtomicLong throttled = new AtomicLong();
+        final AtomicLong serverErrors = new AtomicLong();
+        final AtomicLong malformed = new AtomicLong();
+        final AtomicLong playerNull = new AtomicLong();
+        final AtomicLong urchinRequests = new AtomicLong();
+        final AtomicLong urchinNames = new AtomicLong();
+
+        void reset() {
+            for (AtomicLong counter : new AtomicLong[]{this.hypixelRequests, this.ok, this.rateLimited, this.throttled,
+                    this.serverErrors, this.malformed, this.playerNull, this.urchinRequests, this.urchinNames}) {
+                counter.set(0L);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package tabstats.loadtest;
+
+import java.util.Locale;
+
+/**
+ * How the stub server misbehaves. Probabilities are per request and independent of each other,
+ * checked in the order malformed, 5xx burst, throttle, missing player.
+ */
+public final class StubScenario {
+    final String name;
+    /* Log-normal latency, sigma 0 makes every response take exactly the median */
+    long medianLatencyMillis = 60L;
+    double latencySigma = 0.5;
+    /* Requests allowed per key per window before answering 429 */
+    int rateLimit = 100_000;
+    int rateLimitWindowSeconds = 300;
+    double throttleChance;
+    double globalThrottleChance;
+    /* Chance a request starts a burst of failures, and how many requests in a row it fails */
+    double serverErrorBurstChance;
+    int serverErrorBurstLength = 8;
+    double malformedChance;
+    double playerNullChance;
+    /* Chance a player name comes back from Urchin with a report */
+    double urchinTagChance = 0.1;
+
+    private StubScenario(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name One of clean, slow, throttle, ratelimit, flaky, malformed, chaos
+     */
+    public static StubScenario named(String name) {
+        StubScenario scenario = new StubScenario(name.toLowerCase(Locale.ROOT));
+        switch (scenario.name) {
+            case "clean":
+                break;
+            case "slow":
+                scenario.medianLatencyMillis = 400L;
+                scenario.latencySigma = 0.9;
+                break;
+            case "throttle":
+                scenario.throttleChance = 0.15;
+                scenario.globalThrottleChance = 0.03;
+                break;
+            case "ratelimit":
+                // Small budget so the client runs dry within a lobby or two
+                scenario.rateLimit = 60;
+                scenario.rateLimitWindowSeconds = 10;
+                break;
+            case "flaky":
+                scenario.serverErrorBurstChance = 0.02;
+                scenario.serverErrorBurstLength = 12;
+                break;
+            case "malformed":
+                scenario.malformedChance = 0.1;
+                scenario.playerNullChance = 0.05;
+                break;
+            case "chaos":
+                scenario.medianLatencyMillis = 200L;
+                scenario.latencySigma = 0.8;
+                scenario.rateLimit = 120;
+                scenario.rateLimitWindowSeconds = 10;
+                scenario.throttleChance = 0.05;
+                scenario.globalThrottleChance = 0.01;
+                scenario.serverErrorBurstChance = 0.01;
+                scenario.malformedChance = 0.03;
+                scenario.playerNullChance = 0.03;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario " + name);
+        }
+        return scenario;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s (latency median %dms sigma %.1f, limit %d/%ds, throttle %.0f%%, global %.0f%%, 5xx bursts %.0f%%x%d, malformed %.0f%%, null %.0f%%)",
+                this.name, this.medianLatencyMillis, this.latencySigma, this.rateLimit, this.rateLimitWindowSeconds,
+                this.throttleChance * 100, this.globalThrottleChance * 100, this.serverErrorBurstChance * 100,
+                this.serverErrorBurstLength, this.malformedChance * 100, this.playerNullChance * 100);
+    }
+}
@@ -4,6 +4,7 @@ import tabstats.config.ModConfig;
 import tabstats.listener.GameOverlayListener;
 import tabstats.listener.GuiOpenListener;
 import tabstats.listener.InputListener;
+import tabstats.listener.MetricsOverlayListener;
 import tabstats.playerapi.WorldLoader;
 import tabstats.command.TabStatsCommand;
 import net.minecraftforge.client.ClientCommandHandler;
@@ -20,6 +21,7 @@ public class TabStats {
     private static TabStats tabStats;
     private WorldLoader statWorld;
     private GameOverlayListener gameOverlayListener;
+    private MetricsOverlayListener metricsOverlayListener;
 
     @Mod.EventHandler
     public void preInit(FMLPreInitializationEvent event) {
@@ -30,8 +32,10 @@ public class TabStats {
     @Mod.EventHandler
     public void init(FMLInitializationEvent event) {
         this.statWorld = new WorldLoader();
+        this.statWorld.warmStatCache();
         this.gameOverlayListener = new GameOverlayListener();
-        this.registerListeners(statWorld, gameOverlayListener, new GuiOpenListener(), new InputListener());
+        this.metricsOverlayListener = new MetricsOverlayListener();
+        this.registerListeners(statWorld, gameOverlayListener, metricsOverlayListener, new GuiOpenListener(), new InputListener());
 
         this.applyModEnabled(ModConfig.getInstance().isModEnabled());
     }
@@ -57,6 +61,10 @@ public class TabStats {
         return gameOverlayListener;
     }
 
+    public MetricsOverlayListener getMetricsOverlayListener() {
+        return metricsOverlayListener;
+    }
+
     public boolean isModEnabled() {
         return ModConfig.getInstance().isModEnabled();
     }
@@ -1,13 +1,20 @@
 package tabstats.command;
 
+import tabstats.TabStats;
 import tabstats.listener.GuiOpenListener;
+import tabstats.listener.MetricsOverlayListener;
+import tabstats.metrics.Metrics;
+import tabstats.metrics.MetricsReport;
+import tabstats.util.ChatColor;
 import net.minecraft.command.CommandBase;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
+import net.minecraft.util.ChatComponentText;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 public class TabStatsCommand extends CommandBase {
     
@@ -23,7 +30,7 @@ public class TabStatsCommand extends CommandBase {
     
     @Override
     public String getCommandUsage(ICommandSender sender) {
-        return "/tabstats - Opens TabStats GUI";
+        return "/tabstats - Opens TabStats GUI, /tabstats stats [overlay|reset] - Shows lookup metrics";
     }
     
     @Override
@@ -38,12 +45,44 @@ public class TabStatsCommand extends CommandBase {
     
     @Override
     public void processCommand(ICommandSender sender, String[] args) throws CommandException {
+        if (args.length > 0 && "stats".equalsIgnoreCase(args[0])) {
+            processStats(sender, args);
+            return;
+        }
+
         GuiOpenListener.requestGuiOpen();
     }
+
+    private void processStats(ICommandSender sender, String[] args) {
+        String action = args.length > 1 ? args[1].toLowerCase(Locale.ROOT) : "";
+        switch (action) {
+            case "overlay":
+                MetricsOverlayListener overlay = TabStats.getTabStats() == null ? null : TabStats.getTabStats().getMetricsOverlayListener();
+                if (overlay != null) {
+                    boolean shown = overlay.toggle();
+                    sender.addChatMessage(new ChatComponentText(ChatColor.YELLOW + "TabStats metrics overlay " + (shown ? ChatColor.GREEN + "shown" : ChatColor.RED + "hidden")));
+                }
+                break;
+            case "reset":
+                Metrics.reset();
+                sender.addChatMessage(new ChatComponentText(ChatColor.YELLOW + "TabStats metrics reset"));
+                break;
+            default:
+                for (String line : MetricsReport.lines()) {
+                    sender.addChatMessage(new ChatComponentText(line));
+                }
+                break;
+        }
+    }
     
     @Override
     public List<String> addTabCompletionOptions(ICommandSender sender, String[] args, net.minecraft.util.BlockPos pos) {
-        // No tab completions for this command currently
+        if (args.length == 1) {
+            return getListOfStringsMatchingLastWord(args, "stats");
+        }
+        if (args.length == 2 && "stats".equalsIgnoreCase(args[0])) {
+            return getListOfStringsMatchingLastWord(args, "overlay", "reset");
+        }
         return Collections.emptyList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package tabstats.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config.json on a daemon thread and runs a callback once per burst of changes.
+ * Falls back to polling when the filesystem does not support watching.
+ */
+final class ConfigWatcher {
+    /* Editors often write a file in several steps, wait for them to settle before reloading */
+    private static final long DEBOUNCE_MILLIS = 250L;
+    private static final long POLL_MILLIS = 2000L;
+
+    private final File file;
+    private final Runnable onChange;
+    private Thread thread;
+
+    ConfigWatcher(File file, Runnable onChange) {
+        this.file = file;
+        this.onChange = onChange;
+    }
+
+    synchronized void start() {
+        if (this.thread != null && this.thread.isAlive()) {
+            return;
+        }
+
+        this.thread = new Thread(this::run, "TabStats-ConfigWatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        try {
+            watch();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | RuntimeException ignored) {
+            // No watch support here, or the folder went away - polling still works
+        }
+
+        poll();
+    }
+
+    private void watch() throws IOException, InterruptedException {
+        Path folder = this.file.getParentFile().toPath();
+        try (WatchService watcher = folder.getFileSystem().newWatchService()) {
+            folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean relevant = drain(key);
+
+                WatchKey next;
+                while ((next = watcher.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(next);
+                }
+
+                if (relevant) {
+                    notifyChange();
+                }
+
+                if (!key.reset()) {
+                    // Folder is no longer watchable
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException ignored) {
+        }
+    }
+
+    /* @return whether any of the key's events concern the watched file */
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+
+            Object context = event.context();
+            if (context instanceof Path && this.file.getName().equals(((Path) context).getFileName().toString())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void poll() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // The callback compares modification times itself, so unchanged files are not re-parsed
+            notifyChange();
+        }
+    }
+
+    private void notifyChange() {
+        try {
+            this.onChange.run();
+        } catch (RuntimeException ignored) {
+            // Never let a bad reload kill the watcher
+        }
+    }
+}
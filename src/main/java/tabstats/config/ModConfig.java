@@ -2,6 +2,7 @@ package tabstats.config;
 
 import tabstats.util.Handler;
 import net.minecraft.client.Minecraft;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -14,19 +15,27 @@ import java.util.LinkedHashMap;
 import static tabstats.config.ModConfigNames.APIKEY;
 import static tabstats.config.ModConfigNames.RENDER_HEADER_FOOTER;
 import static tabstats.config.ModConfigNames.MOD_ENABLED;
+import static tabstats.config.ModConfigNames.PLAYER_CACHE_SIZE;
 import static tabstats.config.ModConfigNames.URCHIN_API_KEY;
 
+/**
+ * Settings are held in an immutable {@link Snapshot} behind a volatile field, so getters are plain
+ * field reads. Setters publish a new snapshot, and a {@link ConfigWatcher} re-reads config.json
+ * in the background whenever it is edited outside the game.
+ */
 public class ModConfig {
     private static final String CONFIG_FILENAME = "config.json";
-    private String apiKey;
-    private String lastApiKey; // Track the last API key to detect changes
-    private String urchinApiKey;
-    private String lastUrchinApiKey;
+    /* Bounds for how many looked up players are kept in memory */
+    private static final int DEFAULT_PLAYER_CACHE_SIZE = 500;
+    private static final int MIN_PLAYER_CACHE_SIZE = 50;
+    private static final int MAX_PLAYER_CACHE_SIZE = 5000;
     private static ModConfig instance;
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.DEFAULTS;
     private File configFile;
-    private boolean renderHeaderFooter = true;
-    private boolean modEnabled = true;
-    private long configLastLoaded = -1L;
+    private ConfigWatcher watcher;
+    /* Modification time of the file contents the current snapshot came from (or was saved as) */
+    private volatile long configLastLoaded = -1L;
 
     public static ModConfig getInstance() {
         if (instance == null) instance = new ModConfig();
@@ -34,14 +43,12 @@ public class ModConfig {
 
     }
 
-    public synchronized String getApiKey() {
-        reloadKeysFromDiskIfNeeded();
-        return this.apiKey == null ? "" : this.apiKey;
+    public String getApiKey() {
+        return this.snapshot.apiKey;
     }
 
-    public synchronized String getUrchinApiKey() {
-        reloadKeysFromDiskIfNeeded();
-        return this.urchinApiKey == null ? "" : this.urchinApiKey;
+    public String getUrchinApiKey() {
+        return this.snapshot.urchinApiKey;
     }
 
     private void onApiKeyChanged() {
@@ -60,78 +67,131 @@ public class ModConfig {
         }
     }
 
+    private void onPlayerCacheSizeChanged(int size) {
+        try {
+            tabstats.TabStats tabStats = tabstats.TabStats.getTabStats();
+            if (tabStats != null && tabStats.getStatWorld() != null) {
+                tabStats.getStatWorld().getWorldPlayers().setMaxSize(size);
+            }
+        } catch (Exception e) {
+            // Silent fail - the new size applies next launch
+        }
+    }
+
     public void setApiKey(String key) {
-        // Only update if the key actually changed
-        if (!normalizeKey(key).equals(normalizeKey(this.apiKey))) {
-            this.apiKey = key;
-            // Update lastApiKey to prevent duplicate change detection
-            this.lastApiKey = key;
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            // Only update if the key actually changed
+            if (!normalizeKey(key).equals(normalizeKey(current.apiKey))) {
+                this.snapshot = new Snapshot(nullToEmpty(key), current.urchinApiKey, current.renderHeaderFooter, current.modEnabled, current.playerCacheSize);
+            }
         }
     }
 
     public void setUrchinApiKey(String key) {
-        if (!normalizeKey(key).equals(normalizeKey(this.urchinApiKey))) {
-            this.urchinApiKey = key;
-            this.lastUrchinApiKey = key;
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            if (!normalizeKey(key).equals(normalizeKey(current.urchinApiKey))) {
+                this.snapshot = new Snapshot(current.apiKey, nullToEmpty(key), current.renderHeaderFooter, current.modEnabled, current.playerCacheSize);
+            }
         }
     }
 
     public boolean isRenderHeaderFooterEnabled() {
-        return this.renderHeaderFooter;
+        return this.snapshot.renderHeaderFooter;
     }
 
     public void setRenderHeaderFooterEnabled(boolean value) {
-        this.renderHeaderFooter = value;
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            this.snapshot = new Snapshot(current.apiKey, current.urchinApiKey, value, current.modEnabled, current.playerCacheSize);
+        }
     }
 
     public boolean isModEnabled() {
-        return this.modEnabled;
+        return this.snapshot.modEnabled;
     }
 
     public void setModEnabled(boolean value) {
-        this.modEnabled = value;
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            this.snapshot = new Snapshot(current.apiKey, current.urchinApiKey, current.renderHeaderFooter, value, current.playerCacheSize);
+        }
+    }
+
+    public int getPlayerCacheSize() {
+        return this.snapshot.playerCacheSize;
+    }
+
+    /**
+     * Also resizes the live player cache, the same as a hand edit of config.json picked up by the watcher
+     */
+    public void setPlayerCacheSize(int value) {
+        int previous;
+        int size = clampPlayerCacheSize(value);
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            previous = current.playerCacheSize;
+            this.snapshot = new Snapshot(current.apiKey, current.urchinApiKey, current.renderHeaderFooter, current.modEnabled, size);
+        }
+
+        if (size != previous) {
+            onPlayerCacheSizeChanged(size);
+        }
     }
 
-    private void reloadKeysFromDiskIfNeeded() {
+    /**
+     * Re-reads config.json if it changed since it was last loaded or saved, and publishes the result
+     * as a new snapshot. Called from the config watcher thread.
+     */
+    void reloadFromDisk() {
         File file = getFile();
         if (!file.exists()) {
             return;
         }
 
         long modified = file.lastModified();
-        if (this.apiKey == null || this.urchinApiKey == null || modified != this.configLastLoaded) {
-            applyApiKeyFromDisk(getString(APIKEY));
-            applyUrchinKeyFromDisk(getString(URCHIN_API_KEY));
-            this.configLastLoaded = modified;
+        if (modified == this.configLastLoaded) {
+            // Our own save, or an event for a write we already picked up
+            return;
         }
-    }
 
-    private void applyApiKeyFromDisk(String value) {
-        String freshValue = value == null ? "" : value;
-        String normalizedFresh = normalizeKey(freshValue);
-        String normalizedLast = normalizeKey(this.lastApiKey);
-        if (!normalizedFresh.equals(normalizedLast) && this.lastApiKey != null) {
-            onApiKeyChanged();
+        JsonObject object = readConfigObject(file);
+        if (object == null) {
+            // Probably caught mid-write, the next change event will try again
+            return;
         }
-        this.lastApiKey = freshValue;
-        this.apiKey = freshValue;
-    }
 
-    private void applyUrchinKeyFromDisk(String value) {
-        String freshValue = value == null ? "" : value;
-        String normalizedFresh = normalizeKey(freshValue);
-        String normalizedLast = normalizeKey(this.lastUrchinApiKey);
-        if (!normalizedFresh.equals(normalizedLast) && this.lastUrchinApiKey != null) {
+        Snapshot previous;
+        Snapshot next;
+        synchronized (this.writeLock) {
+            previous = this.snapshot;
+            next = Snapshot.fromJson(object);
+            this.snapshot = next;
+            this.configLastLoaded = modified;
+        }
+
+        if (!normalizeKey(next.apiKey).equals(normalizeKey(previous.apiKey))
+                || !normalizeKey(next.urchinApiKey).equals(normalizeKey(previous.urchinApiKey))) {
             onApiKeyChanged();
         }
-        this.lastUrchinApiKey = freshValue;
-        this.urchinApiKey = freshValue;
+        if (next.playerCacheSize != previous.playerCacheSize) {
+            onPlayerCacheSizeChanged(next.playerCacheSize);
+        }
     }
 
     private String normalizeKey(String key) {
         return key == null ? "" : key.trim();
     }
 
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static int clampPlayerCacheSize(int value) {
+        return Math.max(MIN_PLAYER_CACHE_SIZE, Math.min(MAX_PLAYER_CACHE_SIZE, value));
+    }
+
     @SuppressWarnings("ResultOfMethodCallIgnored")
     private void makeFile() {
         File file = getFile();
@@ -151,6 +211,7 @@ public class ModConfig {
                 defaults.addProperty(RENDER_HEADER_FOOTER.toString(), true);
                 defaults.addProperty(APIKEY.toString(), "");
                 defaults.addProperty(URCHIN_API_KEY.toString(), "");
+                defaults.addProperty(PLAYER_CACHE_SIZE.toString(), DEFAULT_PLAYER_CACHE_SIZE);
 
                 try (FileWriter writer = new FileWriter(file)) {
                     Handler.getGson().toJson(defaults, writer);
@@ -163,16 +224,17 @@ public class ModConfig {
     }
 
     public void loadConfigFromFile() {
-        if (!getFile().exists()) {
+        File file = getFile();
+        if (!file.exists()) {
             makeFile();
         }
-        apiKey = getString(APIKEY);
-        lastApiKey = apiKey;
-        urchinApiKey = getString(URCHIN_API_KEY);
-        lastUrchinApiKey = urchinApiKey;
-        renderHeaderFooter = getBoolean(RENDER_HEADER_FOOTER, true);
-        modEnabled = getBoolean(MOD_ENABLED, true);
-        configLastLoaded = getFile().lastModified();
+
+        long modified = file.lastModified();
+        JsonObject object = readConfigObject(file);
+        synchronized (this.writeLock) {
+            this.snapshot = object == null ? Snapshot.DEFAULTS : Snapshot.fromJson(object);
+            this.configLastLoaded = modified;
+        }
     }
 
     public File getFile() {
@@ -204,57 +266,97 @@ public class ModConfig {
 
     public void init() {
         loadConfigFromFile();
+
+        synchronized (this.writeLock) {
+            if (this.watcher == null) {
+                this.watcher = new ConfigWatcher(getFile(), this::reloadFromDisk);
+            }
+        }
+        this.watcher.start();
     }
 
     public void save() {
+        Snapshot current = this.snapshot;
         LinkedHashMap<String, Object> map = new LinkedHashMap<>();
-        map.put(MOD_ENABLED.toString(), this.modEnabled);
-        map.put(RENDER_HEADER_FOOTER.toString(), this.renderHeaderFooter);
-        map.put(APIKEY.toString(), this.apiKey == null ? "" : this.apiKey); // Use the internal field, not getApiKey()
-        map.put(URCHIN_API_KEY.toString(), this.urchinApiKey == null ? "" : this.urchinApiKey);
+        map.put(MOD_ENABLED.toString(), current.modEnabled);
+        map.put(RENDER_HEADER_FOOTER.toString(), current.renderHeaderFooter);
+        map.put(APIKEY.toString(), current.apiKey);
+        map.put(URCHIN_API_KEY.toString(), current.urchinApiKey);
+        map.put(PLAYER_CACHE_SIZE.toString(), current.playerCacheSize);
         File file = getFile();
         try (Writer writer = new FileWriter(file)) {
             Handler.getGson().toJson(map, writer);
             writer.flush(); // Ensure it's written to disk
-            configLastLoaded = file.lastModified();
         } catch (Exception ex) {
             // Silently handle save errors
         }
+        // Stops the watcher from treating our own write as an outside edit
+        configLastLoaded = file.lastModified();
     }
 
-    public String getString(ModConfigNames key) {
-        File file = getFile();
-        if (!file.exists()) {
-            return "";
-        }
-
+    /* parses config.json once, or returns null if it cannot be read */
+    private static JsonObject readConfigObject(File file) {
         try (FileReader reader = new FileReader(file)) {
-            JsonObject object = new JsonParser().parse(reader).getAsJsonObject();
-            if (!object.has(key.toString())) {
-                return "";
-            }
-            return object.get(key.toString()).getAsString();
+            JsonElement element = new JsonParser().parse(reader);
+            return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
         } catch (Exception ex) {
             // Silently handle read errors
+            return null;
+        }
+    }
+
+    private static String getString(JsonObject object, ModConfigNames key) {
+        try {
+            return object.has(key.toString()) ? object.get(key.toString()).getAsString() : "";
+        } catch (Exception ex) {
             return "";
         }
     }
 
-    public boolean getBoolean(ModConfigNames key, boolean defaultValue) {
-        File file = getFile();
-        if (!file.exists()) {
+    private static boolean getBoolean(JsonObject object, ModConfigNames key, boolean defaultValue) {
+        try {
+            return object.has(key.toString()) ? object.get(key.toString()).getAsBoolean() : defaultValue;
+        } catch (Exception ex) {
             return defaultValue;
         }
+    }
 
-        try (FileReader reader = new FileReader(file)) {
-            JsonObject object = new JsonParser().parse(reader).getAsJsonObject();
-            if (!object.has(key.toString())) {
-                return defaultValue;
-            }
-            return object.get(key.toString()).getAsBoolean();
+    private static int getInt(JsonObject object, ModConfigNames key, int defaultValue) {
+        try {
+            return object.has(key.toString()) ? object.get(key.toString()).getAsInt() : defaultValue;
         } catch (Exception ex) {
-            // Silently handle read errors
             return defaultValue;
         }
     }
+
+    /**
+     * One consistent view of every setting. Never mutated, replaced as a whole on every change.
+     */
+    private static final class Snapshot {
+        private static final Snapshot DEFAULTS = new Snapshot("", "", true, true, DEFAULT_PLAYER_CACHE_SIZE);
+
+        private final String apiKey;
+        private final String urchinApiKey;
+        private final boolean renderHeaderFooter;
+        private final boolean modEnabled;
+        private final int playerCacheSize;
+
+        private Snapshot(String apiKey, String urchinApiKey, boolean renderHeaderFooter, boolean modEnabled, int playerCacheSize) {
+            this.apiKey = apiKey;
+            this.urchinApiKey = urchinApiKey;
+            this.renderHeaderFooter = renderHeaderFooter;
+            this.modEnabled = modEnabled;
+            this.playerCacheSize = playerCacheSize;
+        }
+
+        private static Snapshot fromJson(JsonObject object) {
+            return new Snapshot(
+                    getString(object, APIKEY),
+                    getString(object, URCHIN_API_KEY),
+                    getBoolean(object, RENDER_HEADER_FOOTER, true),
+                    getBoolean(object, MOD_ENABLED, true),
+                    clampPlayerCacheSize(getInt(object, PLAYER_CACHE_SIZE, DEFAULT_PLAYER_CACHE_SIZE))
+            );
+        }
+    }
 }
@@ -4,7 +4,8 @@ public enum ModConfigNames {
     APIKEY("ApiKey"),
     RENDER_HEADER_FOOTER("RenderHeaderFooter"),
     MOD_ENABLED("ModEnabled"),
-    URCHIN_API_KEY("UrchinApiKey");
+    URCHIN_API_KEY("UrchinApiKey"),
+    PLAYER_CACHE_SIZE("PlayerCacheSize");
 
     private final String name;
 
@@ -4,7 +4,8 @@ import tabstats.TabStats;
 import tabstats.config.ModConfig;
 import tabstats.playerapi.HPlayer;
 import tabstats.playerapi.StatWorld;
-import tabstats.playerapi.api.stats.Stat;
+import tabstats.playerapi.api.games.HGameBase;
+import tabstats.playerapi.api.stats.StatColumns;
 import tabstats.render.StatsTab;
 import tabstats.util.ChatColor;
 import net.minecraft.client.Minecraft;
@@ -17,9 +18,7 @@ import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Objects;
 
 public class GameOverlayListener {
     private final StatsTab statsTab;
@@ -27,6 +26,12 @@ public class GameOverlayListener {
     private boolean overlayInjected = false;
     private GuiPlayerTabOverlay originalOverlay;
     private boolean modEnabled;
+    /* Title row and width are reused across frames until the local player, gamemode or stats change */
+    private HPlayer titleOwner;
+    private String titleGamemode;
+    private int titleStatRevision;
+    private StatColumns titleStats = StatColumns.EMPTY;
+    private int titleWidth = -1;
 
     public GameOverlayListener() {
         this.statsTab = new StatsTab(this.mc, this.mc.ingameGUI);
@@ -72,20 +77,23 @@ public class GameOverlayListener {
         StatWorld statWorld = TabStats.getTabStats().getStatWorld();
         HPlayer theHPlayer = statWorld == null ? null : statWorld.getPlayerByUUID(this.mc.thePlayer.getUniqueID());
 
-        List<Stat> gameStatTitleList;
-        if (!supportedGamemode || theHPlayer == null) {
-            gameStatTitleList = Collections.emptyList();
-        } else {
-            List<Stat> stats = theHPlayer.getFormattedGameStats(gamemode);
-            if (stats == null) {
-                gameStatTitleList = new ArrayList<>();
-            } else {
-                gameStatTitleList = stats;
-            }
+        updateTitleStats(supportedGamemode ? theHPlayer : null, gamemode);
+        this.statsTab.renderNewPlayerlist(this.titleWidth, scoreboard, scoreboard.getObjectiveInDisplaySlot(0), this.titleStats, supportedGamemode ? gamemode : null);
+    }
+
+    private void updateTitleStats(HPlayer theHPlayer, String gamemode) {
+        int statRevision = HGameBase.getStatRevision();
+        if (this.titleWidth >= 0 && this.titleOwner == theHPlayer && Objects.equals(this.titleGamemode, gamemode) && this.titleStatRevision == statRevision) {
+            return;
         }
 
-        int width = computeTabWidth(gameStatTitleList);
-        this.statsTab.renderNewPlayerlist(width, scoreboard, scoreboard.getObjectiveInDisplaySlot(0), gameStatTitleList, supportedGamemode ? gamemode : null);
+        StatColumns gameStatTitleList = theHPlayer == null ? StatColumns.EMPTY : theHPlayer.getFormattedGameStats(gamemode);
+
+        this.titleOwner = theHPlayer;
+        this.titleGamemode = gamemode;
+        this.titleStatRevision = statRevision;
+        this.titleStats = gameStatTitleList;
+        this.titleWidth = computeTabWidth(gameStatTitleList);
     }
 
     private String resolveGamemode(Scoreboard scoreboard) {
@@ -111,15 +119,11 @@ public class GameOverlayListener {
         return null;
     }
 
-    private int computeTabWidth(List<Stat> stats) {
+    private int computeTabWidth(StatColumns stats) {
         int width = (StatsTab.headSize + 2) * 2 + this.mc.fontRendererObj.getStringWidth(ChatColor.BOLD + "[YOUTUBE] WWWWWWWWWWWWWWWW") + 10 - 10;
 
-        for (Stat stat : stats) {
-            if (stat == null) {
-                continue;
-            }
-
-            String statName = stat.getStatName();
+        for (int i = 0; i < stats.size(); i++) {
+            String statName = stats.getTitle(i);
             if (statName == null) {
                 continue;
             }
@@ -0,0 +1,54 @@
+package tabstats.listener;
+
+import tabstats.metrics.MetricsReport;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Draws the lookup pipeline metrics in the top left corner, below the F3 text when that is open.
+ * Toggled with /tabstats stats overlay.
+ */
+public class MetricsOverlayListener {
+    /* The report walks every histogram, a few refreshes a second is plenty to read it */
+    private static final long REFRESH_MILLIS = 250L;
+
+    private final Minecraft mc = Minecraft.getMinecraft();
+    private volatile boolean enabled;
+    private List<String> lines = Collections.emptyList();
+    private long lastRefresh;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * @return Whether the overlay is now shown
+     */
+    public boolean toggle() {
+        this.enabled = !this.enabled;
+        this.lastRefresh = 0L;
+        return this.enabled;
+    }
+
+    @SubscribeEvent
+    public void onOverlayText(RenderGameOverlayEvent.Text event) {
+        if (!this.enabled || event.left == null) {
+            return;
+        }
+
+        long now = Minecraft.getSystemTime();
+        if (now - this.lastRefresh >= REFRESH_MILLIS) {
+            this.lines = MetricsReport.lines();
+            this.lastRefresh = now;
+        }
+
+        if (this.mc.gameSettings.showDebugInfo) {
+            event.left.add("");
+        }
+        event.left.addAll(this.lines);
+    }
+}
@@ -0,0 +1,29 @@
+package tabstats.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count of events since the session started or the last reset
+ */
+public final class Counter {
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        this.count.increment();
+    }
+
+    public void add(long amount) {
+        this.count.add(amount);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    void reset() {
+        this.count.reset();
+    }
+}
@@ -0,0 +1,116 @@
+package tabstats.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, log-linear histogram in the style of HdrHistogram: every power of two is split into
+ * 16 equal buckets, so any recorded value is reported within ~6% of itself while the whole range
+ * of a long fits in about a thousand counters. Units are whatever the caller records, by
+ * convention microseconds for latencies.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private volatile long last;
+
+    Histogram() {
+    }
+
+    public void record(long value) {
+        long clamped = Math.max(0L, value);
+        this.counts.incrementAndGet(indexOf(clamped));
+        this.count.increment();
+        this.sum.add(clamped);
+        this.max.accumulateAndGet(clamped, Math::max);
+        this.last = clamped;
+    }
+
+    /**
+     * Records the time since {@code startNanos} in microseconds
+     */
+    public void recordSince(long startNanos) {
+        record((System.nanoTime() - startNanos) / 1000L);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public long getLast() {
+        return this.last;
+    }
+
+    public double getMean() {
+        long n = this.count.sum();
+        return n == 0L ? 0.0 : (double) this.sum.sum() / n;
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return Upper bound of the bucket holding the requested rank, never above the largest recorded value; 0 when empty
+     */
+    public long getPercentile(double percentile) {
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += this.counts.get(i);
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0L);
+        }
+        this.count.reset();
+        this.sum.reset();
+        this.max.set(0L);
+        this.last = 0L;
+    }
+
+    /* values below 16 get a bucket each, above that the top 5 significant bits pick the bucket */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1L;
+    }
+}
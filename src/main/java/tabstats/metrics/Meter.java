@@ -0,0 +1,59 @@
+package tabstats.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter that also knows how many events happened in the last minute, kept as a ring of
+ * one-second slots so reading it never has to look at individual events.
+ */
+public final class Meter {
+    private static final int SLOTS = 60;
+
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+    /* Epoch second each slot's count belongs to, a slot from an older second is stale */
+    private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);
+
+    Meter() {
+    }
+
+    public void mark() {
+        this.total.increment();
+
+        long second = System.currentTimeMillis() / 1000L;
+        int slot = (int) (second % SLOTS);
+        long owner = this.seconds.get(slot);
+        if (owner != second && this.seconds.compareAndSet(slot, owner, second)) {
+            // First event of this second claims the slot; a racing mark may be dropped, which is fine for a rate
+            this.counts.set(slot, 0L);
+        }
+        this.counts.incrementAndGet(slot);
+    }
+
+    public long getCount() {
+        return this.total.sum();
+    }
+
+    /**
+     * @return Events in the 60 seconds up to now
+     */
+    public long getLastMinute() {
+        long now = System.currentTimeMillis() / 1000L;
+        long sum = 0L;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (now - this.seconds.get(slot) < SLOTS) {
+                sum += this.counts.get(slot);
+            }
+        }
+        return sum;
+    }
+
+    void reset() {
+        this.total.reset();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            this.counts.set(slot, 0L);
+            this.seconds.set(slot, 0L);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package tabstats.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Process wide registry of the mod's counters, meters, gauges and histograms. Metrics are created
+ * on first use and live for the whole session; recording is lock free so it is safe on any thread,
+ * including the render thread.
+ */
+public final class Metrics {
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Meter> METERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter());
+    }
+
+    public static Meter meter(String name) {
+        return METERS.computeIfAbsent(name, key -> new Meter());
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Registers a value read on demand. Registering the same name again replaces the previous supplier.
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    /**
+     * @return The gauge's current value, or -1 if nothing registered it
+     */
+    public static long gaugeValue(String name) {
+        LongSupplier supplier = GAUGES.get(name);
+        if (supplier == null) {
+            return -1L;
+        }
+
+        try {
+            return supplier.getAsLong();
+        } catch (RuntimeException ex) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Zeroes every counter, meter and histogram. Gauges report live values and are left alone.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        METERS.values().forEach(Meter::reset);
+        HISTOGRAMS.values().forEach(Histogram::reset);
+    }
+}
@@ -0,0 +1,83 @@
+package tabstats.metrics;
+
+import tabstats.util.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formats the registry into the handful of lines shown by the debug overlay and /tabstats stats
+ */
+public final class MetricsReport {
+    private MetricsReport() {
+    }
+
+    public static List<String> lines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(ChatColor.GOLD + "TabStats");
+
+        Histogram lookup = Metrics.histogram("lookup.latency");
+        lines.add(label("Lookups") + "p50 " + formatMicros(lookup.getPercentile(50)) + ", p99 " + formatMicros(lookup.getPercentile(99))
+                + " (" + lookup.getCount() + "), " + Metrics.gaugeValue("lookups.queued") + " queued, "
+                + Metrics.gaugeValue("lookups.running") + " running, " + Metrics.gaugeValue("lookups.retrying") + " retrying, "
+                + Metrics.counter("lookup.retries").getCount() + " retries, " + Metrics.counter("lookup.stale").getCount() + " stale");
+
+        long memory = Metrics.counter("lookup.resolved.memory").getCount();
+        long disk = Metrics.counter("lookup.resolved.disk").getCount();
+        long negative = Metrics.counter("lookup.resolved.negative").getCount();
+        long api = Metrics.counter("lookup.resolved.api").getCount();
+        long resolved = memory + disk + negative + api;
+        String ratio = resolved == 0 ? "-" : Math.round(100.0 * (memory + disk + negative) / resolved) + "%";
+        lines.add(label("Cache hits") + ratio + " (memory " + memory + ", disk " + disk + ", negative " + negative + ", api " + api + ")");
+
+        Meter hypixel = Metrics.meter("hypixel.requests");
+        Histogram hypixelLatency = Metrics.histogram("hypixel.latency");
+        long limit = Metrics.gaugeValue("hypixel.ratelimit.limit");
+        long remaining = Metrics.gaugeValue("hypixel.ratelimit.remaining");
+        lines.add(label("Hypixel") + hypixel.getLastMinute() + " req/min, key limit " + (limit < 0 ? "?" : Long.toString(limit))
+                + " per window, " + (remaining < 0 ? "?" : Long.toString(remaining)) + " left, p50 "
+                + formatMicros(hypixelLatency.getPercentile(50)) + ", p99 " + formatMicros(hypixelLatency.getPercentile(99)));
+        lines.add(label("Hypixel errors") + "io " + Metrics.counter("hypixel.errors.io").getCount()
+                + ", throttled " + Metrics.counter("hypixel.errors.throttled").getCount()
+                + ", bad json " + Metrics.counter("hypixel.errors.badjson").getCount()
+                + ", held " + Metrics.counter("hypixel.held").getCount());
+
+        Meter urchin = Metrics.meter("urchin.requests");
+        Histogram urchinLatency = Metrics.histogram("urchin.latency");
+        lines.add(label("Urchin") + urchin.getLastMinute() + " req/min, batch avg "
+                + String.format(Locale.ROOT, "%.1f", Metrics.histogram("urchin.batch").getMean())
+                + ", p50 " + formatMicros(urchinLatency.getPercentile(50)) + ", p99 " + formatMicros(urchinLatency.getPercentile(99))
+                + ", wait p99 " + formatMicros(Metrics.histogram("urchin.queue.wait").getPercentile(99))
+                + ", " + Metrics.gaugeValue("urchin.inflight") + " in flight, errors " + Metrics.counter("urchin.errors").getCount());
+
+        lines.add(lane("io"));
+        lines.add(lane("cpu") + ", " + Metrics.gaugeValue("executor.scheduler.queue") + " timers");
+
+        Histogram render = Metrics.histogram("tab.render");
+        lines.add(label("Tab render") + "last " + formatMicros(render.getLast()) + ", p50 " + formatMicros(render.getPercentile(50))
+                + ", p99 " + formatMicros(render.getPercentile(99)) + ", " + Metrics.counter("tab.layout.rebuilds").getCount() + " rebuilds");
+        return lines;
+    }
+
+    private static String lane(String name) {
+        String prefix = "executor." + name;
+        return label("Lane " + name) + Metrics.gaugeValue(prefix + ".active") + "/" + Metrics.gaugeValue(prefix + ".threads")
+                + " busy, " + Metrics.gaugeValue(prefix + ".queue") + " queued, wait p99 " + formatMicros(Metrics.histogram(prefix + ".wait").getPercentile(99))
+                + ", rejected " + Metrics.counter(prefix + ".rejected").getCount() + ", failed " + Metrics.counter(prefix + ".failed").getCount();
+    }
+
+    private static String label(String name) {
+        return ChatColor.YELLOW + name + ": " + ChatColor.WHITE;
+    }
+
+    static String formatMicros(long micros) {
+        if (micros < 1_000L) {
+            return micros + "us";
+        }
+        if (micros < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.1fms", micros / 1_000.0);
+        }
+        return String.format(Locale.ROOT, "%.2fs", micros / 1_000_000.0);
+    }
+}
@@ -0,0 +1,245 @@
+package tabstats.playerapi;
+
+import tabstats.util.Handler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Holds lookups that are waiting for a free slot and always starts the most useful one next.
+ * Only a few lookups run at once, so when the API budget is tight the players the user is
+ * looking at are resolved before the rest of the lobby. Priorities are plain ints refreshed
+ * from the client thread; ties go to whoever has been waiting longest.
+ */
+public class FetchQueue {
+    /* Lookups allowed to run at once; the rest wait here, where they can still be reordered */
+    public static final int MAX_CONCURRENT_LOOKUPS = 8;
+    /* How long to wait before trying again when the io lane has no room for another lookup */
+    private static final long REDISPATCH_DELAY_MILLIS = 250L;
+
+    private final Map<UUID, PendingFetch> pending = new LinkedHashMap<>();
+    private final Consumer<PendingFetch> runner;
+    private final Consumer<UUID> onCancelled;
+    private final AtomicBoolean redispatchScheduled = new AtomicBoolean();
+    private int running;
+    /* System.nanoTime() before which no lookup is started, 0 while not held */
+    private long heldUntil;
+
+    /**
+     * @param runner Performs a lookup synchronously, called on an io lane thread
+     * @param onCancelled Invoked for every queued lookup dropped by {@link #cancelAll()} or discarded by the io lane
+     */
+    public FetchQueue(Consumer<PendingFetch> runner, Consumer<UUID> onCancelled) {
+        this.runner = runner;
+        this.onCancelled = onCancelled;
+    }
+
+    /**
+     * Queues a lookup. A lookup already queued for the same player is updated in place and keeps its place in line.
+     * @param priority Initial priority, higher is started first
+     */
+    public void submit(LookupTarget target, int attempt, int priority) {
+        if (target == null) {
+            return;
+        }
+
+        synchronized (this) {
+            PendingFetch existing = this.pending.get(target.getUuid());
+            if (existing != null) {
+                existing.target = target;
+                existing.attempt = attempt;
+                existing.priority = Math.max(existing.priority, priority);
+            } else {
+                PendingFetch fetch = new PendingFetch(target, attempt, System.nanoTime());
+                fetch.priority = priority;
+                this.pending.put(target.getUuid(), fetch);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Queues a retry of a lookup that already ran. It keeps its priority and the time it was first
+     * queued, so a throttled lookup does not fall behind everything queued while it waited.
+     */
+    public void resubmit(PendingFetch fetch, int attempt) {
+        synchronized (this) {
+            PendingFetch existing = this.pending.get(fetch.target.getUuid());
+            if (existing != null) {
+                existing.attempt = attempt;
+                existing.priority = Math.max(existing.priority, fetch.priority);
+            } else {
+                fetch.attempt = attempt;
+                this.pending.put(fetch.target.getUuid(), fetch);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Starts no lookups for a while, used once the API budget is spent. Lookups keep waiting here in
+     * priority order instead of on separate timers, so the best ones go first when the budget returns.
+     */
+    public void holdFor(long millis) {
+        synchronized (this) {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            if (this.heldUntil == 0L || until - this.heldUntil > 0) {
+                this.heldUntil = until;
+            }
+        }
+        scheduleRedispatch(millis);
+    }
+
+    /**
+     * Re-scores every queued lookup. Meant to be called from the client thread, where team and tab state can be read safely.
+     * @param scorer Higher scores are started first
+     */
+    public void updatePriorities(ToIntFunction<LookupTarget> scorer) {
+        List<PendingFetch> snapshot;
+        synchronized (this) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+            snapshot = new ArrayList<>(this.pending.values());
+        }
+
+        for (PendingFetch fetch : snapshot) {
+            fetch.priority = scorer.applyAsInt(fetch.target);
+        }
+    }
+
+    /**
+     * Drops every lookup that has not started yet
+     */
+    public void cancelAll() {
+        List<UUID> cancelled;
+        synchronized (this) {
+            cancelled = new ArrayList<>(this.pending.keySet());
+            this.pending.clear();
+        }
+
+        for (UUID uuid : cancelled) {
+            this.onCancelled.accept(uuid);
+        }
+    }
+
+    public synchronized int getQueuedCount() {
+        return this.pending.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return this.running;
+    }
+
+    private void dispatch() {
+        while (true) {
+            PendingFetch next;
+            long heldFor = 0L;
+            synchronized (this) {
+                if (this.running >= MAX_CONCURRENT_LOOKUPS || this.pending.isEmpty()) {
+                    return;
+                }
+
+                if (this.heldUntil != 0L) {
+                    heldFor = this.heldUntil - System.nanoTime();
+                    if (heldFor <= 0) {
+                        this.heldUntil = 0L;
+                    }
+                }
+
+                next = heldFor > 0 ? null : takeBest();
+                if (next != null) {
+                    this.running++;
+                }
+            }
+
+            if (next == null) {
+                // Come back once the hold is over
+                scheduleRedispatch(TimeUnit.NANOSECONDS.toMillis(heldFor) + 1);
+                return;
+            }
+
+            if (!Handler.io().execute(() -> run(next), () -> discard(next))) {
+                // The lane is full of other work, keep the lookup here where it can still be reordered
+                synchronized (this) {
+                    this.running--;
+                    this.pending.putIfAbsent(next.target.getUuid(), next);
+                }
+                scheduleRedispatch(REDISPATCH_DELAY_MILLIS);
+                return;
+            }
+        }
+    }
+
+    /* a redispatch that is already scheduled runs first and schedules the next one itself if it is still too early */
+    private void scheduleRedispatch(long delayMillis) {
+        if (this.redispatchScheduled.compareAndSet(false, true)) {
+            Handler.schedule(() -> {
+                this.redispatchScheduled.set(false);
+                dispatch();
+            }, delayMillis);
+        }
+    }
+
+    /* the lookup was still waiting on the io lane when the world changed */
+    private void discard(PendingFetch fetch) {
+        synchronized (this) {
+            this.running--;
+        }
+        this.onCancelled.accept(fetch.target.getUuid());
+    }
+
+    /* must hold the lock; a linear scan is fine for lobby-sized queues and lets priorities change freely */
+    private PendingFetch takeBest() {
+        PendingFetch best = null;
+        for (PendingFetch fetch : this.pending.values()) {
+            if (best == null || fetch.priority > best.priority || (fetch.priority == best.priority && fetch.queuedAt - best.queuedAt < 0)) {
+                best = fetch;
+            }
+        }
+
+        this.pending.remove(best.target.getUuid());
+        return best;
+    }
+
+    private void run(PendingFetch fetch) {
+        try {
+            this.runner.accept(fetch);
+        } catch (RuntimeException ignored) {
+            // A failed lookup must not leak its slot
+        } finally {
+            synchronized (this) {
+                this.running--;
+            }
+            dispatch();
+        }
+    }
+
+    public static final class PendingFetch {
+        private volatile LookupTarget target;
+        private volatile int attempt;
+        private final long queuedAt;
+        private volatile int priority;
+
+        private PendingFetch(LookupTarget target, int attempt, long queuedAt) {
+            this.target = target;
+            this.attempt = attempt;
+            this.queuedAt = queuedAt;
+        }
+
+        public LookupTarget getTarget() {
+            return this.target;
+        }
+
+        public int getAttempt() {
+            return this.attempt;
+        }
+    }
+}
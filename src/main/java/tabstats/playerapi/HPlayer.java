@@ -1,13 +1,11 @@
 package tabstats.playerapi;
 
 import tabstats.playerapi.api.games.HGameBase;
-import tabstats.playerapi.api.stats.Stat;
+import tabstats.playerapi.api.stats.StatColumns;
 import tabstats.util.ChatColor;
 import com.google.gson.JsonObject;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 
 /* Hypixel Player */
 public class HPlayer {
@@ -76,14 +74,14 @@ public class HPlayer {
         this.playerName = name;
     }
 
-    public List<Stat> getFormattedGameStats(String gameName) {
+    public StatColumns getFormattedGameStats(String gameName) {
         try {
             HGameBase game = this.gameMap == null ? null : this.gameMap.get(gameName);
-            if (game == null) return new ArrayList<>();
-            List<Stat> list = game.getFormattedStatList();
-            return list == null ? new ArrayList<>() : list;
+            if (game == null) return StatColumns.EMPTY;
+            StatColumns columns = game.getStatColumns();
+            return columns == null ? StatColumns.EMPTY : columns;
         } catch (Exception ignored) {
-            return new ArrayList<>();
+            return StatColumns.EMPTY;
         }
     }
 
@@ -176,6 +174,13 @@ public class HPlayer {
         return this.playerRank.substring(0, 2);
     }
 
+    /**
+     * @return Whether any game stats were loaded for this player
+     */
+    public boolean hasGameData() {
+        return this.gameMap != null && !this.gameMap.isEmpty();
+    }
+
     public HGameBase getGame(String gameName) {
         return this.gameMap.get(gameName);
     }
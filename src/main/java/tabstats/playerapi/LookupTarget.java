@@ -0,0 +1,80 @@
+package tabstats.playerapi;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.client.network.NetworkPlayerInfo;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.IChatComponent;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the identity a stat lookup is performed for.
+ * Captured once when the lookup is queued so retries never need to hold on to the entity.
+ * Also remembers which world generation queued it, see {@link StatWorld#advanceWorldGeneration()}.
+ */
+public final class LookupTarget {
+    private final UUID uuid;
+    private final String playerName;
+    private final String displayName;
+    private final int generation;
+
+    public LookupTarget(UUID uuid, String playerName, String displayName) {
+        this(uuid, playerName, displayName, 0);
+    }
+
+    private LookupTarget(UUID uuid, String playerName, String displayName, int generation) {
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.displayName = displayName;
+        this.generation = generation;
+    }
+
+    public static LookupTarget of(EntityPlayer entityPlayer) {
+        IChatComponent display = entityPlayer.getDisplayName();
+        return new LookupTarget(entityPlayer.getUniqueID(), entityPlayer.getName(), display != null ? display.getFormattedText() : null);
+    }
+
+    /**
+     * Identity of a tab list entry, available long before the player's entity spawns
+     */
+    public static LookupTarget of(NetworkPlayerInfo playerInfo) {
+        return of(playerInfo.getGameProfile(), playerInfo.getDisplayName());
+    }
+
+    /**
+     * @param display Custom tab name, may be null
+     */
+    public static LookupTarget of(GameProfile profile, IChatComponent display) {
+        return new LookupTarget(profile.getId(), profile.getName(), display != null ? display.getFormattedText() : null);
+    }
+
+    public UUID getUuid() {
+        return this.uuid;
+    }
+
+    /**
+     * @return UUID without dashes, the format Hypixel's API expects
+     */
+    public String getCompactUuid() {
+        return this.uuid.toString().replace("-", "");
+    }
+
+    public String getPlayerName() {
+        return this.playerName;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    public int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * @return This identity tagged with the given world generation
+     */
+    public LookupTarget withGeneration(int generation) {
+        return generation == this.generation ? this : new LookupTarget(this.uuid, this.playerName, this.displayName, generation);
+    }
+}
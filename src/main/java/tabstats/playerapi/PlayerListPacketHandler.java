@@ -0,0 +1,99 @@
+package tabstats.playerapi;
+
+import com.mojang.authlib.GameProfile;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import net.minecraft.network.play.server.S38PacketPlayerListItem;
+import net.minecraft.network.play.server.S3EPacketTeams;
+import net.minecraft.util.IChatComponent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sits in front of the vanilla packet handler and reports tab list additions and removals, and
+ * scoreboard team membership changes. Runs on the netty thread, so the sinks must only queue or
+ * flag the change for the client thread. The packet itself is always passed on untouched.
+ */
+final class PlayerListPacketHandler extends ChannelInboundHandlerAdapter {
+    static final String NAME = "tabstats_player_list";
+    /* S3EPacketTeams action for prefix/suffix updates, which Hypixel sends constantly for the sidebar */
+    private static final int TEAM_UPDATE_INFO = 2;
+
+    private final Consumer<Change> sink;
+    private final Runnable teamsChanged;
+
+    /**
+     * @param sink Receives every tab list addition and removal
+     * @param teamsChanged Called whenever a team is created or removed or players move between teams
+     */
+    PlayerListPacketHandler(Consumer<Change> sink, Runnable teamsChanged) {
+        this.sink = sink;
+        this.teamsChanged = teamsChanged;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof S38PacketPlayerListItem) {
+            try {
+                read((S38PacketPlayerListItem) msg);
+            } catch (RuntimeException ignored) {
+                // Never let our bookkeeping break the connection
+            }
+        } else if (msg instanceof S3EPacketTeams && ((S3EPacketTeams) msg).getAction() != TEAM_UPDATE_INFO) {
+            this.teamsChanged.run();
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    private void read(S38PacketPlayerListItem packet) {
+        S38PacketPlayerListItem.Action action = packet.func_179768_b();
+        if (action != S38PacketPlayerListItem.Action.ADD_PLAYER && action != S38PacketPlayerListItem.Action.REMOVE_PLAYER) {
+            // Latency, game mode and display name updates do not change who is in the lobby
+            return;
+        }
+
+        List<S38PacketPlayerListItem.AddPlayerData> entries = packet.func_179767_a();
+        if (entries == null) {
+            return;
+        }
+
+        for (S38PacketPlayerListItem.AddPlayerData entry : entries) {
+            GameProfile profile = entry.getProfile();
+            if (profile != null && profile.getId() != null) {
+                this.sink.accept(new Change(profile, entry.getDisplayName(), action == S38PacketPlayerListItem.Action.ADD_PLAYER));
+            }
+        }
+    }
+
+    /**
+     * One player added to or removed from the tab list. Additions and removals share a queue so
+     * they are applied in the order the server sent them.
+     */
+    static final class Change {
+        private final GameProfile profile;
+        private final IChatComponent displayName;
+        private final boolean added;
+
+        private Change(GameProfile profile, IChatComponent displayName, boolean added) {
+            this.profile = profile;
+            this.displayName = displayName;
+            this.added = added;
+        }
+
+        GameProfile getProfile() {
+            return this.profile;
+        }
+
+        /**
+         * @return Custom tab name sent with the entry, usually null on servers that style names through teams
+         */
+        IChatComponent getDisplayName() {
+            return this.displayName;
+        }
+
+        boolean isAdded() {
+            return this.added;
+        }
+    }
+}
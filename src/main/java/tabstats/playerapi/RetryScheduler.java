@@ -0,0 +1,114 @@
+package tabstats.playerapi;
+
+import tabstats.util.Handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Holds pending lookup retries as plain data (the queued lookup, attempt) with a timer on the shared
+ * scheduler thread. A retry is only handed to the dispatcher once it is due, so waiting out a
+ * throttle window never parks an executor thread.
+ */
+public class RetryScheduler {
+    /* Upper bound on retries waiting at once; anything beyond this is released back to discovery */
+    private static final int MAX_PENDING_RETRIES = 256;
+
+    private final Map<UUID, PendingRetry> pendingByUuid = new ConcurrentHashMap<>();
+    private final Consumer<PendingRetry> dispatcher;
+    private final Consumer<UUID> onCancelled;
+
+    /**
+     * @param dispatcher Invoked on the scheduler thread once a retry is due, should hand the work off quickly
+     * @param onCancelled Invoked for every retry dropped by {@link #cancelAll()}
+     */
+    public RetryScheduler(Consumer<PendingRetry> dispatcher, Consumer<UUID> onCancelled) {
+        this.dispatcher = dispatcher;
+        this.onCancelled = onCancelled;
+    }
+
+    /**
+     * @param fetch Lookup to run again, it goes back in the queue with its priority and queue time
+     * @param attempt Attempt number the retry will run as
+     * @param delayMillis How long to wait before the retry becomes due
+     * @return false if the retry was rejected because too many retries are already pending
+     */
+    public boolean schedule(FetchQueue.PendingFetch fetch, int attempt, long delayMillis) {
+        if (fetch == null) {
+            return false;
+        }
+
+        UUID uuid = fetch.getTarget().getUuid();
+        if (this.pendingByUuid.size() >= MAX_PENDING_RETRIES && !this.pendingByUuid.containsKey(uuid)) {
+            return false;
+        }
+
+        PendingRetry retry = new PendingRetry(fetch, attempt);
+        PendingRetry previous = this.pendingByUuid.put(uuid, retry);
+        if (previous != null) {
+            previous.cancel();
+        }
+        retry.future = Handler.schedule(() -> fire(retry), delayMillis);
+        return true;
+    }
+
+    /**
+     * Drops every pending retry without running it
+     */
+    public void cancelAll() {
+        List<PendingRetry> pending = new ArrayList<>(this.pendingByUuid.values());
+        for (PendingRetry retry : pending) {
+            if (this.pendingByUuid.remove(retry.getTarget().getUuid(), retry)) {
+                retry.cancel();
+                this.onCancelled.accept(retry.getTarget().getUuid());
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return this.pendingByUuid.size();
+    }
+
+    private void fire(PendingRetry retry) {
+        // A newer retry for the same player or a cancellation supersedes this one
+        if (this.pendingByUuid.remove(retry.getTarget().getUuid(), retry)) {
+            this.dispatcher.accept(retry);
+        }
+    }
+
+    public static final class PendingRetry {
+        private final FetchQueue.PendingFetch fetch;
+        private final int attempt;
+        /* Set right after scheduling; a retry that fires or is cancelled before then is still settled by the map */
+        private volatile ScheduledFuture<?> future;
+
+        private PendingRetry(FetchQueue.PendingFetch fetch, int attempt) {
+            this.fetch = fetch;
+            this.attempt = attempt;
+        }
+
+        public FetchQueue.PendingFetch getFetch() {
+            return this.fetch;
+        }
+
+        public LookupTarget getTarget() {
+            return this.fetch.getTarget();
+        }
+
+        public int getAttempt() {
+            return this.attempt;
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> scheduled = this.future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
@@ -1,58 +1,117 @@
 package tabstats.playerapi;
 
 import tabstats.config.ModConfig;
-import tabstats.playerapi.api.HypixelAPI;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Histogram;
+import tabstats.metrics.Metrics;
+import tabstats.playerapi.api.PlayerLookupCoalescer;
 import tabstats.playerapi.api.games.bedwars.Bedwars;
 import tabstats.playerapi.api.games.duels.Duels;
 import tabstats.playerapi.api.games.skywars.Skywars;
+import tabstats.playerapi.cache.AliasIndex;
+import tabstats.playerapi.cache.NegativeLookupCache;
+import tabstats.playerapi.cache.PlayerCache;
+import tabstats.playerapi.cache.PlayerStatCache;
 import tabstats.playerapi.exception.ApiRequestException;
 import tabstats.playerapi.exception.ApiThrottleException;
 import tabstats.playerapi.exception.BadJsonException;
 import tabstats.playerapi.exception.InvalidKeyException;
 import tabstats.playerapi.exception.PlayerNullException;
-import tabstats.util.ChatColor;
+import tabstats.playerapi.exception.RateLimitedException;
 import tabstats.util.Handler;
+import tabstats.util.NameKey;
 import tabstats.util.NickDetector;
 import com.google.gson.JsonObject;
+import net.minecraft.client.network.NetworkPlayerInfo;
 import net.minecraft.entity.player.EntityPlayer;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StatWorld {
-    private final ConcurrentHashMap<UUID, HPlayer> worldPlayers;
-    private final Map<String, HPlayer> nameAliases;
+    /* A missing profile is asked for this many more times, this far apart, before it is recorded */
+    private static final int NO_PROFILE_CONFIRM_ATTEMPTS = 3;
+    private static final long NO_PROFILE_RETRY_DELAY_MILLIS = 10_000L;
+    /* Time from a player being queued to their stats being shown */
+    private static final Histogram LOOKUP_LATENCY = Metrics.histogram("lookup.latency");
+    /* Where each resolved lookup was answered from, for the cache hit ratio */
+    private static final Counter RESOLVED_FROM_MEMORY = Metrics.counter("lookup.resolved.memory");
+    private static final Counter RESOLVED_FROM_DISK = Metrics.counter("lookup.resolved.disk");
+    private static final Counter RESOLVED_FROM_API = Metrics.counter("lookup.resolved.api");
+    /* Bots and profile-less players answered from the negative cache */
+    private static final Counter RESOLVED_FROM_NEGATIVE = Metrics.counter("lookup.resolved.negative");
+    private static final Counter RETRIES = Metrics.counter("lookup.retries");
+    /* Lookups and retries dropped because they belonged to a world we already left */
+    private static final Counter STALE = Metrics.counter("lookup.stale");
+    private final PlayerCache worldPlayers;
+    /* Normalised names and display names of cached and in-flight players */
+    private final AliasIndex nameAliases = new AliasIndex();
     protected final Set<UUID> statAssembly = ConcurrentHashMap.newKeySet();
-    protected final Set<UUID> existedMoreThan5Seconds = ConcurrentHashMap.newKeySet();
-    protected final Map<UUID, Integer> timeCheck = new HashMap<>();
+    /* Players in the current world, these are never evicted to make room for others */
+    protected final Set<UUID> presentPlayers = ConcurrentHashMap.newKeySet();
     protected volatile long lastWorldJoinTime;
+    /* Set when every player in the world has to go through discovery again, e.g. after the cache was cleared */
+    private final AtomicBoolean rescanRequested = new AtomicBoolean();
+    /* Bumped on every world change, lookups carry the generation that queued them */
+    private final AtomicInteger worldGeneration = new AtomicInteger();
+    /* nanoTime each in-progress lookup was first queued at */
+    private final Map<UUID, Long> lookupStartedAt = new ConcurrentHashMap<>();
+    private final PlayerStatCache playerStatCache = new PlayerStatCache();
+    private final NegativeLookupCache negativeCache = new NegativeLookupCache();
+    /* Joins concurrent lookups of the same player onto one API call */
+    private final PlayerLookupCoalescer lookups = new PlayerLookupCoalescer();
+    private final RetryScheduler retryScheduler = new RetryScheduler(this::dispatchRetry, this::removeFromStatAssembly);
+    protected final FetchQueue fetchQueue = new FetchQueue(this::runLookup, this::removeFromStatAssembly);
 
     public StatWorld() {
-        worldPlayers = new ConcurrentHashMap<>();
-        nameAliases = new ConcurrentHashMap<>();
+        worldPlayers = new PlayerCache(ModConfig.getInstance().getPlayerCacheSize(), presentPlayers::contains, this::onPlayerEvicted);
+
+        Metrics.gauge("lookups.queued", this::getQueuedLookupCount);
+        Metrics.gauge("lookups.running", this::getRunningLookupCount);
+        Metrics.gauge("lookups.retrying", this.retryScheduler::getPendingCount);
     }
 
     public void removePlayer(UUID playerUUID) {
         HPlayer removed = worldPlayers.remove(playerUUID);
         // Clean up tracking maps to prevent memory leaks
-        timeCheck.remove(playerUUID);
         statAssembly.remove(playerUUID);
-        existedMoreThan5Seconds.remove(playerUUID);
         removeAliases(removed);
     }
 
     public void addPlayer(UUID playerUUID, HPlayer player) {
         worldPlayers.put(playerUUID, player);
-        registerAlias(player, player.getPlayerName());
+        registerAlias(playerUUID, player, player.getPlayerName());
     }
 
     public void clearPlayers() {
+        retryScheduler.cancelAll();
+        fetchQueue.cancelAll();
         worldPlayers.clear();
         // Clear all tracking maps to prevent memory leaks
-        timeCheck.clear();
         statAssembly.clear();
-        existedMoreThan5Seconds.clear();
+        presentPlayers.clear();
+        lookupStartedAt.clear();
         nameAliases.clear();
+        requestRescan();
+    }
+
+    /**
+     * Drops players whose cache entry has expired, evicted players take their aliases with them
+     */
+    public void purgeExpiredPlayers() {
+        worldPlayers.purgeExpired();
+    }
+
+    /* called by the player cache for every evicted or expired player */
+    private void onPlayerEvicted(UUID playerUUID, HPlayer player) {
+        removeAliases(player);
+        if (presentPlayers.contains(playerUUID)) {
+            // Discovery only looks at joins, so someone still in the lobby would otherwise lose their row for good.
+            // The next tick looks them up again, usually straight from the disk cache
+            requestRescan();
+        }
     }
 
     /**
@@ -61,16 +120,12 @@ public class StatWorld {
      */
     public void rerenderTabList() {
         // Clear tracking to allow fresh processing but preserve cached players
-        timeCheck.clear();
         statAssembly.clear();
-        
-        // Preserve existence tracking for cached players to avoid 5-second delays
-        existedMoreThan5Seconds.clear();
-        existedMoreThan5Seconds.addAll(worldPlayers.keySet());
-        
-        // The actual re-rendering logic happens in WorldLoader.onTick():
+
+        // The actual re-rendering logic happens on WorldLoader's next tick:
         // - Cached players display immediately
         // - Non-cached players trigger fetchStatsWithRetry()
+        requestRescan();
     }
 
     /**
@@ -85,23 +140,60 @@ public class StatWorld {
      * Force recheck a specific player: Remove from cache and trigger fresh fetchStatsWithRetry
      */
     public void recheckPlayer(UUID uuid) {
-        // Remove specific player to force re-fetch
+        // Remove specific player to force re-fetch, including the copy on disk
+        playerStatCache.invalidate(uuid);
+        negativeCache.invalidate(uuid);
         HPlayer removed = worldPlayers.remove(uuid);
         statAssembly.remove(uuid);
-        existedMoreThan5Seconds.remove(uuid);
-        timeCheck.remove(uuid);
         removeAliases(removed);
+        requestRescan();
     }
 
-    public ConcurrentHashMap<UUID, HPlayer> getWorldPlayers() {
+    /**
+     * Asks discovery to walk every player in the world once more on its next tick, instead of only
+     * the ones that joined since
+     */
+    protected void requestRescan() {
+        this.rescanRequested.set(true);
+    }
+
+    /**
+     * @return Whether a rescan was requested since the last call, clearing the request
+     */
+    protected boolean consumeRescanRequest() {
+        return this.rescanRequested.getAndSet(false);
+    }
+
+    public PlayerCache getWorldPlayers() {
         return this.worldPlayers;
     }
 
+    /**
+     * @return Counter that changes whenever a player or name alias is added, replaced or removed
+     */
+    public int getPlayerVersion() {
+        return this.worldPlayers.getVersion() + this.nameAliases.getVersion();
+    }
+
     public long getLastWorldJoinTime() {
         return lastWorldJoinTime;
     }
 
-    public void removeFromStatAssembly(UUID uuid) { this.statAssembly.remove(uuid); }
+    public int getPendingRetryCount() {
+        return this.retryScheduler.getPendingCount();
+    }
+
+    /**
+     * @return Number of Hypixel lookups that were served by another in-flight request for the same player
+     */
+    public long getCoalescedLookupCount() {
+        return this.lookups.getCoalescedCount();
+    }
+
+    public void removeFromStatAssembly(UUID uuid) {
+        this.statAssembly.remove(uuid);
+        this.lookupStartedAt.remove(uuid);
+    }
 
     public HPlayer getPlayerByUUID(UUID uuid) {
         return this.worldPlayers.get(uuid);
@@ -119,14 +211,14 @@ public class StatWorld {
                     continue;
                 }
 
-                String normalized = candidate.trim();
-                if (normalized.isEmpty()) {
+                String key = NameKey.of(candidate);
+                if (key.isEmpty()) {
                     continue;
                 }
 
-                HPlayer aliased = nameAliases.get(normalized.toLowerCase(Locale.ROOT));
+                AliasIndex.Alias aliased = nameAliases.get(key);
                 if (aliased != null) {
-                    return aliased;
+                    return aliased.getPlayer();
                 }
             }
         }
@@ -134,16 +226,38 @@ public class StatWorld {
         return null;
     }
 
+    /**
+     * @return The cached player going by this name, found through the alias index
+     */
     public HPlayer getPlayerByName(String name) {
-        for (Map.Entry<UUID,HPlayer> playerEntry : this.worldPlayers.entrySet()) {
-            HPlayer player = playerEntry.getValue();
+        if (name == null) {
+            return null;
+        }
+
+        AliasIndex.Alias aliased = nameAliases.get(NameKey.of(name));
+        if (aliased == null) {
+            return null;
+        }
+
+        HPlayer player = aliased.getPlayer();
+        if (name.equalsIgnoreCase(player.getPlayerName())) {
+            // Aliases also cover lookups still in flight, only answer with players that made it into the cache
+            return this.worldPlayers.get(aliased.getUuid()) == player ? player : null;
+        }
+
+        // The name is someone else's display name alias, rare enough to settle with a scan
+        return scanPlayersByName(name);
+    }
+
+    private HPlayer scanPlayersByName(String name) {
+        for (HPlayer player : this.worldPlayers.values()) {
             if (player == null) {
                 continue;
             }
 
             String candidate = player.getPlayerName();
             if (candidate != null && candidate.equalsIgnoreCase(name)) {
-                return playerEntry.getValue();
+                return player;
             }
         }
 
@@ -152,195 +266,372 @@ public class StatWorld {
 
     /**
      * Fetch stats for a specific player using the retry system
+     * @param priority Queue priority, players with higher values are looked up first
      */
-    public void fetchStats(EntityPlayer entityPlayer) {
+    public void fetchStats(EntityPlayer entityPlayer, int priority) {
+        fetchStats(LookupTarget.of(entityPlayer), priority);
+    }
+
+    /**
+     * Fetch stats for a tab list entry, so rows fill in before the player's entity has spawned
+     * @param priority Queue priority, players with higher values are looked up first
+     */
+    public void fetchStats(NetworkPlayerInfo playerInfo, int priority) {
+        fetchStats(LookupTarget.of(playerInfo), priority);
+    }
+
+    /**
+     * Fetch stats for a player identity captured elsewhere, without needing the entity
+     * @param priority Queue priority, players with higher values are looked up first
+     */
+    public void fetchStats(LookupTarget target, int priority) {
         if (!ModConfig.getInstance().isModEnabled()) {
             return;
         }
-        fetchStatsWithRetry(entityPlayer, 0);
+        this.lookupStartedAt.putIfAbsent(target.getUuid(), System.nanoTime());
+        this.fetchQueue.submit(target.withGeneration(this.worldGeneration.get()), 0, priority);
     }
-    
-    private void fetchStatsWithRetry(EntityPlayer entityPlayer, int apiRetryAttempt) {
-        Handler.asExecutor(() -> {
-            if (!ModConfig.getInstance().isModEnabled()) {
-                this.statAssembly.remove(entityPlayer.getUniqueID());
-                return;
-            }
-            UUID uuid = entityPlayer.getUniqueID();
-            String playerName = entityPlayer.getName();
-            String playerUUID = entityPlayer.getUniqueID().toString().replace("-", "");
-
-            String displayComponent = entityPlayer.getDisplayName() != null ? entityPlayer.getDisplayName().getFormattedText() : null;
-            HPlayer existing = getPlayerByIdentity(uuid, displayComponent, playerName);
-            if (existing != null) {
-                cachePlayer(uuid, existing);
-                registerAlias(existing, displayComponent);
-                return;
-            }
 
-            HPlayer hPlayer = new HPlayer(playerUUID, playerName);
-            registerAlias(hPlayer, playerName);
-            registerAlias(hPlayer, displayComponent);
+    /**
+     * @return Lookups waiting for a free slot
+     */
+    public int getQueuedLookupCount() {
+        return this.fetchQueue.getQueuedCount();
+    }
 
-            // Fire API call; nick status is inferred instantly from UUID version (v1 = nicked)
-            boolean apiSuccess = false;
-            Exception apiException = null;
-            boolean throttleTriggered = false;
-            boolean globalThrottle = false;
-            int uuidVersion = uuid.version();
-            
-            // 1. Attempt API call
-            try {
-                JsonObject wholeObject = new HypixelAPI().getWholeObject(playerUUID);
-                JsonObject playerObject = wholeObject.get("player").getAsJsonObject();
-
-                hPlayer.setPlayerRank(playerObject);
-                hPlayer.setPlayerName(playerObject.get("displayname").getAsString());
-                registerAlias(hPlayer, hPlayer.getPlayerName());
-
-                hPlayer.addGames(
-                        new Bedwars(playerName, playerUUID, wholeObject),
-                        new Duels(playerName, playerUUID, wholeObject),
-                        new Skywars(playerName, playerUUID, wholeObject)
-                );
-                apiSuccess = true;
-                
-            } catch (ApiThrottleException ex) {
-                apiSuccess = false;
-                apiException = ex;
-                throttleTriggered = true;
-                globalThrottle = ex.isGlobal();
-            } catch (PlayerNullException | ApiRequestException | InvalidKeyException | BadJsonException ex) {
-                apiSuccess = false;
-                apiException = ex;
-            }
-            
-            // 2. Determine nick status purely from UUID version (v1 = nicked)
-            boolean isNicked = NickDetector.isNickedUuid(playerUUID);
+    /**
+     * @return Lookups currently talking to the API
+     */
+    public int getRunningLookupCount() {
+        return this.fetchQueue.getRunningCount();
+    }
 
-            // 3. Handle results based on outcomes
-            if (apiSuccess) {
-                // API worked - player is definitely real, not nicked (API wouldn't return data for nicked players)
-                hPlayer.setNicked(false);
-                cachePlayer(uuid, hPlayer);
-                return;
-            }
+    /**
+     * Called when the world changes. Queued lookups and retries are dropped straight away; lookups
+     * already running finish and are cached, but never retry or start another request for a player
+     * that is not in the new world.
+     */
+    public void advanceWorldGeneration() {
+        this.worldGeneration.incrementAndGet();
+        cancelPendingRetries();
+    }
+
+    public int getWorldGeneration() {
+        return this.worldGeneration.get();
+    }
+
+    /**
+     * Drops every pending retry and queued lookup, used when leaving a world so old lobbies stop consuming the API
+     */
+    public void cancelPendingRetries() {
+        this.retryScheduler.cancelAll();
+        this.fetchQueue.cancelAll();
+        // Lookups already handed to the io lane but not started yet
+        Handler.discardQueuedWork();
+    }
+
+    /* queued in an earlier world for someone we no longer see */
+    private boolean isStale(LookupTarget target) {
+        return target.getGeneration() != this.worldGeneration.get() && !this.presentPlayers.contains(target.getUuid());
+    }
+
+    private void fetchStatsWithRetry(FetchQueue.PendingFetch fetch, int apiRetryAttempt) {
+        RETRIES.increment();
+        this.fetchQueue.resubmit(fetch, apiRetryAttempt);
+    }
+
+    /* runs on an executor thread once the fetch queue picks this lookup */
+    private void runLookup(FetchQueue.PendingFetch fetch) {
+        LookupTarget target = fetch.getTarget();
+        int apiRetryAttempt = fetch.getAttempt();
+        UUID uuid = target.getUuid();
+        if (!ModConfig.getInstance().isModEnabled()) {
+            this.statAssembly.remove(uuid);
+            return;
+        }
+        if (isStale(target)) {
+            STALE.increment();
+            this.removeFromStatAssembly(uuid);
+            return;
+        }
+        String playerName = target.getPlayerName();
+        String playerUUID = target.getCompactUuid();
+
+        String displayComponent = target.getDisplayName();
+        HPlayer existing = getPlayerByIdentity(uuid, displayComponent, playerName);
+        if (existing != null) {
+            cachePlayer(uuid, existing, RESOLVED_FROM_MEMORY);
+            registerAlias(uuid, existing, displayComponent);
+            return;
+        }
+
+        // Bots and players without a profile are remembered across lobbies and launches, no need to ask again
+        NegativeLookupCache.Kind known = this.negativeCache.getKind(uuid);
+        if (known == NegativeLookupCache.Kind.BOT) {
+            // Left in statAssembly like a fresh bot answer below
+            RESOLVED_FROM_NEGATIVE.increment();
+            this.lookupStartedAt.remove(uuid);
+            return;
+        }
+
+        HPlayer hPlayer = new HPlayer(playerUUID, playerName);
+        registerAlias(uuid, hPlayer, playerName);
+        registerAlias(uuid, hPlayer, displayComponent);
+
+        if (known == NegativeLookupCache.Kind.NO_PROFILE) {
+            hPlayer.setNicked(false);
+            cachePlayer(uuid, hPlayer, RESOLVED_FROM_NEGATIVE);
+            return;
+        }
+
+        // Repeat opponents render straight from disk; old entries are refreshed once they are on screen
+        if (apiRetryAttempt == 0 && restoreFromStatCache(target, hPlayer)) {
+            return;
+        }
+
+        // Fire API call; nick status is inferred instantly from UUID version (v1 = nicked)
+        boolean apiSuccess = false;
+        Exception apiException = null;
+        boolean throttleTriggered = false;
+        boolean globalThrottle = false;
+        boolean rateLimited = false;
+        long retryAfterMillis = -1L;
+        int uuidVersion = uuid.version();
+        
+        // 1. Attempt API call
+        try {
+            JsonObject projectedObject = this.lookups.getWholeObject(playerUUID);
+            populatePlayer(target, hPlayer, projectedObject);
+            this.playerStatCache.store(uuid, projectedObject);
+            apiSuccess = true;
             
-            if (isNicked) {
-                // Nicked player (UUID v1) - no API data expected, mark as nicked and cache
-                hPlayer.setNicked(true);
-                cachePlayer(uuid, hPlayer);
-                return;
-            }
+        } catch (ApiThrottleException ex) {
+            apiSuccess = false;
+            apiException = ex;
+            throttleTriggered = true;
+            globalThrottle = ex.isGlobal();
+            rateLimited = ex instanceof RateLimitedException;
+            retryAfterMillis = ex.getRetryAfterMillis();
+        } catch (PlayerNullException | ApiRequestException | InvalidKeyException | BadJsonException ex) {
+            apiSuccess = false;
+            apiException = ex;
+        }
+        
+        // 2. Determine nick status purely from UUID version (v1 = nicked)
+        boolean isNicked = NickDetector.isNickedUuid(playerUUID);
 
-            // 4. API failed - handle based on nick uncertainty
-            if (!apiSuccess) {
-                if (throttleTriggered) {
-                    if (apiRetryAttempt < 8) {
-                        long baseDelay = globalThrottle ? 5_000L : 2_000L;
-                        long delay = baseDelay * Math.max(1, apiRetryAttempt + 1);
-                        Handler.asExecutor(() -> {
-                            if (!ModConfig.getInstance().isModEnabled()) {
-                                this.statAssembly.remove(entityPlayer.getUniqueID());
-                                return;
-                            }
-                            try {
-                                Thread.sleep(delay);
-                                fetchStatsWithRetry(entityPlayer, apiRetryAttempt + 1);
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                            }
-                        });
-                        return;
-                    }
-                    throttleTriggered = false; // fall through to cache fallback below
-                }
+        // 3. Handle results based on outcomes
+        if (apiSuccess) {
+            // API worked - player is definitely real, not nicked (API wouldn't return data for nicked players)
+            hPlayer.setNicked(false);
+            cachePlayer(uuid, hPlayer, RESOLVED_FROM_API);
+            return;
+        }
+        
+        if (isNicked) {
+            // Nicked player (UUID v1) - no API data expected, mark as nicked and cache
+            hPlayer.setNicked(true);
+            cachePlayer(uuid, hPlayer, RESOLVED_FROM_API);
+            return;
+        }
 
-                if (uuidVersion == 2 && apiException instanceof PlayerNullException) {
-                    // Version 2 UUIDs with no API data are lobby bots/spoofs - leave in statAssembly so we don't re-fetch
+        // 4. API failed - handle based on nick uncertainty
+        if (!apiSuccess) {
+            if (rateLimited) {
+                removeAliases(hPlayer);
+                // Never sent - hold the queue until the budget resets and wait there without spending an
+                // attempt, so the most useful lookups go first once it does
+                this.fetchQueue.holdFor(retryAfterMillis);
+                this.fetchQueue.resubmit(fetch, apiRetryAttempt);
+                return;
+            }
+            if (throttleTriggered) {
+                if (apiRetryAttempt < 8) {
+                    long baseDelay = globalThrottle ? 5_000L : 2_000L;
+                    long delay = retryAfterMillis > 0 ? retryAfterMillis : baseDelay * Math.max(1, apiRetryAttempt + 1);
                     removeAliases(hPlayer);
+                    scheduleRetry(fetch, apiRetryAttempt + 1, delay);
                     return;
                 }
-                // Don't retry on certain permanent failures
-                if (apiException instanceof InvalidKeyException) {
-                    // Invalid API key - stop everything, don't waste calls
-                    this.removeFromStatAssembly(uuid);
-                    return;
-                }
-                
-                // Real UUID (v4 or v2) but API failed - use exponential backoff for API issues
-                if (apiRetryAttempt < 8) { // 0-7 = 8 attempts total
-                    // Schedule retry with exponential backoff
-                    Handler.asExecutor(() -> {
-                        if (!ModConfig.getInstance().isModEnabled()) {
-                            this.statAssembly.remove(entityPlayer.getUniqueID());
-                            return;
-                        }
-                        try {
-                            Thread.sleep(apiRetryAttempt == 0 ? 0 : Math.round(250 * Math.pow(2, apiRetryAttempt - 1)));
-                            fetchStatsWithRetry(entityPlayer, apiRetryAttempt + 1);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
-                    return;
-                } else {
-                    // Max API retries reached for real UUID - treat as regular player with no stats
+                throttleTriggered = false; // fall through to cache fallback below
+            }
+
+            if (uuidVersion == 2 && apiException instanceof PlayerNullException) {
+                // Version 2 UUIDs with no API data are lobby bots/spoofs - leave in statAssembly so we don't re-fetch
+                this.negativeCache.store(uuid, NegativeLookupCache.Kind.BOT);
+                removeAliases(hPlayer);
+                this.lookupStartedAt.remove(uuid);
+                return;
+            }
+            if (apiException instanceof PlayerNullException) {
+                if (apiRetryAttempt >= NO_PROFILE_CONFIRM_ATTEMPTS) {
+                    // Still no profile after waiting it out - show them without stats and remember that
+                    this.negativeCache.store(uuid, NegativeLookupCache.Kind.NO_PROFILE);
                     hPlayer.setNicked(false);
-                    cachePlayer(uuid, hPlayer);
+                    cachePlayer(uuid, hPlayer, RESOLVED_FROM_API);
                     return;
                 }
+                // A fresh account's profile can take a while to appear, ask again once some real time has passed
+                removeAliases(hPlayer);
+                scheduleRetry(fetch, apiRetryAttempt + 1, NO_PROFILE_RETRY_DELAY_MILLIS);
+                return;
             }
+            // Don't retry on certain permanent failures
+            if (apiException instanceof InvalidKeyException) {
+                // Invalid API key - stop everything, don't waste calls
+                removeAliases(hPlayer);
+                this.removeFromStatAssembly(uuid);
+                return;
+            }
+            
+            // Real UUID (v4 or v2) but API failed - use exponential backoff for API issues
+            if (apiRetryAttempt < 8) { // 0-7 = 8 attempts total
+                // Schedule retry with exponential backoff. The placeholder's aliases go too, or the
+                // retry would find it through them and cache it without stats
+                removeAliases(hPlayer);
+                scheduleRetry(fetch, apiRetryAttempt + 1, apiRetryAttempt == 0 ? 0 : Math.round(250 * Math.pow(2, apiRetryAttempt - 1)));
+                return;
+            } else {
+                // Max API retries reached for real UUID - treat as regular player with no stats
+                hPlayer.setNicked(false);
+                cachePlayer(uuid, hPlayer, RESOLVED_FROM_API);
+                return;
+            }
+        }
 
-            // 5. API succeeded - player is definitely real, not nicked
-            // (API wouldn't return valid data for nicked players)
-            hPlayer.setNicked(false);
-            cachePlayer(uuid, hPlayer);
-        });
+        // 5. API succeeded - player is definitely real, not nicked
+        // (API wouldn't return valid data for nicked players)
+        hPlayer.setNicked(false);
+        cachePlayer(uuid, hPlayer, RESOLVED_FROM_API);
     }
 
-    // Skin hash extraction removed – no longer needed for nick detection
+    private void populatePlayer(LookupTarget target, HPlayer hPlayer, JsonObject wholeObject) {
+        JsonObject playerObject = wholeObject.get("player").getAsJsonObject();
+        String playerName = target.getPlayerName();
+        String playerUUID = target.getCompactUuid();
 
-    private void registerAlias(HPlayer player, String name) {
-        if (player == null || name == null) {
-            return;
+        hPlayer.setPlayerRank(playerObject);
+        hPlayer.setPlayerName(playerObject.get("displayname").getAsString());
+        registerAlias(target.getUuid(), hPlayer, hPlayer.getPlayerName());
+
+        hPlayer.addGames(
+                new Bedwars(playerName, playerUUID, wholeObject),
+                new Duels(playerName, playerUUID, wholeObject),
+                new Skywars(playerName, playerUUID, wholeObject)
+        );
+    }
+
+    private boolean restoreFromStatCache(LookupTarget target, HPlayer hPlayer) {
+        PlayerStatCache.Entry stored = this.playerStatCache.get(target.getUuid());
+        if (stored == null) {
+            return false;
         }
 
-        String normalized = name.trim();
-        if (normalized.isEmpty()) {
-            return;
+        try {
+            populatePlayer(target, hPlayer, stored.getProjectedObject());
+        } catch (RuntimeException ex) {
+            // Corrupt entry - forget it and fall back to a normal lookup
+            this.playerStatCache.invalidate(target.getUuid());
+            return false;
         }
 
-        storeAlias(normalized, player);
+        hPlayer.setNicked(false);
+        cachePlayer(target.getUuid(), hPlayer, RESOLVED_FROM_DISK);
 
-        String stripped = ChatColor.stripColor(normalized);
-        if (stripped != null && !stripped.equalsIgnoreCase(normalized)) {
-            storeAlias(stripped, player);
+        if (stored.isStale()) {
+            refreshStoredPlayer(target, hPlayer);
         }
+        return true;
     }
 
-    private void removeAliases(HPlayer player) {
-        if (player == null) {
+    /**
+     * Single best-effort lookup for a player already shown from the disk cache.
+     * Failures keep the cached stats on screen rather than entering the retry cycle.
+     */
+    private void refreshStoredPlayer(LookupTarget target, HPlayer cached) {
+        UUID uuid = target.getUuid();
+        HPlayer refreshed = new HPlayer(target.getCompactUuid(), target.getPlayerName());
+        try {
+            JsonObject projectedObject = this.lookups.getWholeObject(target.getCompactUuid());
+            populatePlayer(target, refreshed, projectedObject);
+            this.playerStatCache.store(uuid, projectedObject);
+        } catch (Exception ex) {
+            removeAliases(refreshed);
             return;
         }
 
-        nameAliases.entrySet().removeIf(entry -> entry.getValue() == player);
+        // Only swap if nobody removed or replaced the cached player while we were waiting on the API
+        if (this.worldPlayers.replace(uuid, cached, refreshed)) {
+            removeAliases(cached);
+            registerAlias(uuid, refreshed, target.getPlayerName());
+            registerAlias(uuid, refreshed, target.getDisplayName());
+            registerAlias(uuid, refreshed, refreshed.getPlayerName());
+        } else {
+            removeAliases(refreshed);
+        }
     }
 
-    private void storeAlias(String name, HPlayer player) {
-        if (name == null) {
+    /**
+     * Starts reading the on-disk stat and negative caches so the first lookups after launch do not wait on them
+     */
+    public void warmStatCache() {
+        // If the io lane is full the caches just load on their first use instead
+        Handler.io().execute(() -> {
+            this.playerStatCache.ensureLoaded();
+            this.negativeCache.ensureLoaded();
+            Bedwars.warmUrchinTagCache();
+        });
+    }
+
+    private void scheduleRetry(FetchQueue.PendingFetch fetch, int attempt, long delay) {
+        LookupTarget target = fetch.getTarget();
+        if (isStale(target)) {
+            // The world changed while this lookup was running, nobody is waiting for the retry
+            STALE.increment();
+            this.removeFromStatAssembly(target.getUuid());
+            return;
+        }
+
+        if (!this.retryScheduler.schedule(fetch, attempt, delay)) {
+            // Too many retries pending - release the player so discovery picks them up again later
+            this.removeFromStatAssembly(target.getUuid());
+            requestRescan();
+        }
+    }
+
+    private void dispatchRetry(RetryScheduler.PendingRetry retry) {
+        fetchStatsWithRetry(retry.getFetch(), retry.getAttempt());
+    }
+
+    // Skin hash extraction removed – no longer needed for nick detection
+
+    private void registerAlias(UUID uuid, HPlayer player, String name) {
+        if (player == null || name == null) {
             return;
         }
 
-        String trimmed = name.trim();
-        if (trimmed.isEmpty()) {
+        // Formatted and plain spellings of a name share one key
+        String key = NameKey.of(name);
+        if (!key.isEmpty()) {
+            nameAliases.put(key, uuid, player);
+        }
+    }
+
+    private void removeAliases(HPlayer player) {
+        if (player == null) {
             return;
         }
 
-        nameAliases.put(trimmed.toLowerCase(Locale.ROOT), player);
+        nameAliases.removeAll(player);
     }
 
-    private void cachePlayer(UUID uuid, HPlayer player) {
+    private void cachePlayer(UUID uuid, HPlayer player, Counter resolvedFrom) {
+        Long startedAt = this.lookupStartedAt.remove(uuid);
+        if (startedAt != null) {
+            LOOKUP_LATENCY.recordSince(startedAt);
+        }
+        resolvedFrom.increment();
+
         this.addPlayer(uuid, player);
         this.removeFromStatAssembly(uuid);
     }
@@ -1,48 +1,80 @@
 package tabstats.playerapi;
 
+import com.mojang.authlib.GameProfile;
+import io.netty.channel.ChannelPipeline;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.network.NetHandlerPlayClient;
+import net.minecraft.client.network.NetworkPlayerInfo;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.IChatComponent;
+import net.minecraft.scoreboard.ScorePlayerTeam;
+import net.minecraft.scoreboard.Scoreboard;
 import tabstats.TabStats;
 import tabstats.config.ModConfig;
 import tabstats.listener.GameOverlayListener;
-import tabstats.util.ChatColor;
+import tabstats.render.StatsTab;
 import tabstats.util.Handler;
+import tabstats.util.NameKey;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
 import net.minecraft.world.World;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
+/**
+ * Discovers players from events rather than by walking every loaded player each tick: tab list
+ * packets and entity joins start lookups and track who is still in the lobby. Everyone is only
+ * walked again after a world change or when the cache was reset, so the per-tick cost follows how
+ * much changed.
+ */
 public class WorldLoader extends StatWorld {
     private final Minecraft mc = Minecraft.getMinecraft();
     private World lastObservedWorld;
     private static final Pattern VALID_USERNAME = Pattern.compile("^[A-Za-z0-9_]{3,16}$");
     private boolean lastModEnabled = ModConfig.getInstance().isModEnabled();
+    /* Players whose entity joined the client world since the last tick, client thread only */
+    private final List<EntityPlayer> joinedPlayers = new ArrayList<>();
+    /* Tab list additions and removals, queued from the netty thread */
+    private final Queue<PlayerListPacketHandler.Change> tabChanges = new ConcurrentLinkedQueue<>();
+    private final List<LookupTarget> newLookups = new ArrayList<>();
+    /* Lookup priorities: rows on screen in the tab list beat opponents, who beat everyone else */
+    private static final int PRIORITY_VISIBLE = 2;
+    private static final int PRIORITY_OPPONENT = 1;
+    /* Set from the netty thread when team membership changes, opponent scores are stale until the next re-score */
+    private final AtomicBoolean teamsChanged = new AtomicBoolean();
+    /* What the queued lookups were last scored against */
+    private boolean scoredWhileShowing;
+    private int scoredVisibleRevision;
 
     public boolean loadOrRender(EntityPlayer player) {
-        if (player == null) return false;
-        
-        UUID uuid = player.getUniqueID();
+        return player != null && loadOrRender(LookupTarget.of(player));
+    }
+
+    /**
+     * Same filter for identities that only come from the tab list
+     */
+    public boolean loadOrRender(LookupTarget target) {
+        UUID uuid = target.getUuid();
         if (uuid == null) {
             return false;
         }
 
-        String baseName = player.getName();
+        String baseName = target.getPlayerName();
         if (baseName == null || !VALID_USERNAME.matcher(baseName).matches()) {
             return false;
         }
 
-        IChatComponent displayComponent = player.getDisplayName();
-        if (displayComponent != null) {
-            String stripped = ChatColor.stripColor(displayComponent.getFormattedText());
-            if (stripped != null && stripped.trim().startsWith("[NPC]")) {
-                return false;
-            }
+        String displayKey = NameKey.of(target.getDisplayName());
+        if (displayKey != null && displayKey.startsWith("[npc]")) {
+            return false;
         }
 
     // Allow only UUID versions we care about: 4 (real), 2 (lobby/replay), 1 (nicked). Version 3 = holograms/NPCs.
@@ -51,20 +83,40 @@ public class WorldLoader extends StatWorld {
     }
 
     /** Handle version 1 UUIDs: always nicked. */
-    private void checkNickStatus(EntityPlayer entityPlayer) {
-        Handler.asExecutor(() -> {
+    private void checkNickStatus(LookupTarget target) {
+        Handler.cpu().execute(() -> {
             if (!ModConfig.getInstance().isModEnabled()) {
                 return;
             }
-            UUID uuid = entityPlayer.getUniqueID();
-            HPlayer hPlayer = new HPlayer(uuid.toString(), entityPlayer.getName());
+            UUID uuid = target.getUuid();
+            HPlayer hPlayer = new HPlayer(uuid.toString(), target.getPlayerName());
             hPlayer.setNicked(true);
             this.addPlayer(uuid, hPlayer);
             this.removeFromStatAssembly(uuid);
         });
     }
 
-    /* populates and checks the stat world player cache every client tick */
+    @SubscribeEvent
+    public void onEntityJoinWorld(EntityJoinWorldEvent event) {
+        // Server worlds of an integrated server fire this too, only the client world matters here
+        if (event.entity instanceof EntityPlayer && event.world != null && event.world == mc.theWorld && ModConfig.getInstance().isModEnabled()) {
+            this.joinedPlayers.add((EntityPlayer) event.entity);
+        }
+    }
+
+    @SubscribeEvent
+    public void onClientConnected(FMLNetworkEvent.ClientConnectedToServerEvent event) {
+        try {
+            ChannelPipeline pipeline = event.manager.channel().pipeline();
+            if (pipeline.get(PlayerListPacketHandler.NAME) == null) {
+                pipeline.addBefore("packet_handler", PlayerListPacketHandler.NAME, new PlayerListPacketHandler(this.tabChanges::add, () -> this.teamsChanged.set(true)));
+            }
+        } catch (RuntimeException ignored) {
+            // Unusual pipeline - players are still discovered from entities, they just count as present until the world changes
+        }
+    }
+
+    /* applies everything discovered since the last client tick */
     @SubscribeEvent
     public void onClientTick(TickEvent.ClientTickEvent event) {
         if (event.phase != TickEvent.Phase.END) {
@@ -77,100 +129,179 @@ public class WorldLoader extends StatWorld {
                 resetTabScroll();
             }
             lastModEnabled = false;
+            this.joinedPlayers.clear();
+            this.tabChanges.clear();
             return;
         }
 
+        if (!lastModEnabled) {
+            // Joins were not tracked while disabled
+            this.requestRescan();
+        }
         lastModEnabled = true;
         World currentWorld = mc.theWorld;
 
         if (currentWorld != lastObservedWorld) {
             lastObservedWorld = currentWorld;
             this.lastWorldJoinTime = System.currentTimeMillis();
+            // Nobody from the last lobby is present any more, the rescan below adds the new one
+            this.presentPlayers.clear();
+            // Lookups and retries for the previous lobby would only burn quota on players we left behind
+            this.advanceWorldGeneration();
+            // Lobby changes are rare enough to sweep out expired players from the last one
+            this.purgeExpiredPlayers();
             // Only reset scroll position on world change, preserve cache
             resetTabScroll();
+            // Joins queued so far may belong to either world
+            this.requestRescan();
         }
 
         if (mc.theWorld == null || mc.thePlayer == null) {
             return;
         }
 
-        for (EntityPlayer entityPlayer : mc.theWorld.playerEntities) {
-            UUID uuid = entityPlayer.getUniqueID();
-
-            if (!existedMoreThan5Seconds.contains(uuid)) {
-                timeCheck.putIfAbsent(uuid, 0);
-
-                int old = this.timeCheck.get(uuid);
-                if (old > 100) {
-                    if (!this.existedMoreThan5Seconds.contains(uuid)) {
-                        this.existedMoreThan5Seconds.add(uuid);
-                    }
-                } else {
-                    this.timeCheck.put(uuid, old + 1);
-                }
+        this.newLookups.clear();
+        if (this.consumeRescanRequest()) {
+            this.joinedPlayers.clear();
+            rescan();
+        } else if (!this.joinedPlayers.isEmpty()) {
+            for (EntityPlayer entityPlayer : this.joinedPlayers) {
+                discover(LookupTarget.of(entityPlayer));
             }
+            this.joinedPlayers.clear();
+        }
+        applyTabChanges();
 
-            if (!loadOrRender(entityPlayer)) {
-                continue;
+        rescoreQueuedLookups();
+        if (!this.newLookups.isEmpty()) {
+            // Only a few lookups start right away, make sure those are the useful ones
+            this.newLookups.sort(Comparator.comparingInt((LookupTarget target) -> scoreLookup(target.getUuid(), target.getPlayerName())).reversed());
+            for (LookupTarget target : this.newLookups) {
+                this.fetchStats(target, scoreLookup(target.getUuid(), target.getPlayerName()));
             }
+            this.newLookups.clear();
+        }
+    }
 
-            if (this.getWorldPlayers().containsKey(uuid)) {
-                continue;
+    /* walks everyone in the tab list and the world, tab entries first since they carry the better display name */
+    private void rescan() {
+        NetHandlerPlayClient netHandler = mc.getNetHandler();
+        if (netHandler != null) {
+            for (NetworkPlayerInfo playerInfo : netHandler.getPlayerInfoMap()) {
+                if (playerInfo.getGameProfile() != null && playerInfo.getGameProfile().getId() != null) {
+                    discover(LookupTarget.of(playerInfo));
+                }
             }
+        }
 
-            if (!this.statAssembly.add(uuid)) {
-                continue;
-            }
+        for (EntityPlayer entityPlayer : mc.theWorld.playerEntities) {
+            discover(LookupTarget.of(entityPlayer));
+        }
+    }
 
-            if (uuid.version() == 4 || uuid.version() == 2) {
-                this.fetchStats(entityPlayer);
-            } else if (uuid.version() == 1) {
-                this.checkNickStatus(entityPlayer);
-            }
-            this.checkCacheSize();
+    private void discover(LookupTarget target) {
+        UUID uuid = target.getUuid();
+        if (uuid == null) {
+            return;
+        }
+        this.presentPlayers.add(uuid);
+
+        if (!loadOrRender(target)) {
+            return;
+        }
+
+        if (this.getWorldPlayers().contains(uuid)) {
+            return;
+        }
+
+        if (!this.statAssembly.add(uuid)) {
+            return;
+        }
+
+        if (uuid.version() == 4 || uuid.version() == 2) {
+            this.newLookups.add(target);
+        } else if (uuid.version() == 1) {
+            this.checkNickStatus(target);
         }
     }
 
-    public void checkCacheSize() {
-        if (getWorldPlayers().size() > 500) {
-            Set<UUID> safePlayers = new HashSet<>();
-            for (EntityPlayer player : mc.theWorld.playerEntities) {
-                UUID uuid = player.getUniqueID();
-                if (this.existedMoreThan5Seconds.contains(uuid)) {
-                    safePlayers.add(uuid);
-                }
+    private void applyTabChanges() {
+        PlayerListPacketHandler.Change change;
+        while ((change = this.tabChanges.poll()) != null) {
+            UUID uuid = change.getProfile().getId();
+            if (change.isAdded()) {
+                // Tab entries arrive well before the entity spawns, and for players outside render distance too
+                discover(LookupTarget.of(change.getProfile(), change.getDisplayName()));
+            } else {
+                this.presentPlayers.remove(uuid);
             }
+        }
+    }
+
+    /* lookups already waiting are only re-scored once scrolling, the tab list opening or closing, or a team change could reorder them */
+    private void rescoreQueuedLookups() {
+        StatsTab statsTab = getStatsTab();
+        boolean showing = statsTab != null && statsTab.isShowingRows();
+        int revision = statsTab == null ? 0 : statsTab.getVisibleRowsRevision();
+        boolean visibleChanged = showing != this.scoredWhileShowing || (showing && revision != this.scoredVisibleRevision);
+        if (!this.teamsChanged.getAndSet(false) && !visibleChanged) {
+            return;
+        }
 
-            this.existedMoreThan5Seconds.clear();
-            this.existedMoreThan5Seconds.addAll(safePlayers);
+        this.scoredWhileShowing = showing;
+        this.scoredVisibleRevision = revision;
+        this.fetchQueue.updatePriorities(target -> scoreLookup(target.getUuid(), target.getPlayerName()));
+    }
 
-            for (UUID playerUUID : new ArrayList<>(this.getWorldPlayers().keySet())) {
-                if (!safePlayers.contains(playerUUID)) {
-                    this.removePlayer(playerUUID);
-                }
-            }
+    /* must run on the client thread, reads tab list and scoreboard state */
+    private int scoreLookup(UUID uuid, String playerName) {
+        int score = 0;
+        StatsTab statsTab = getStatsTab();
+        if (statsTab != null && statsTab.isRowVisible(uuid)) {
+            score += PRIORITY_VISIBLE;
         }
+        if (isOpponent(playerName)) {
+            score += PRIORITY_OPPONENT;
+        }
+        return score;
+    }
+
+    private boolean isOpponent(String playerName) {
+        if (playerName == null || mc.theWorld == null || mc.thePlayer == null) {
+            return false;
+        }
+
+        Scoreboard scoreboard = mc.theWorld.getScoreboard();
+        if (scoreboard == null) {
+            return false;
+        }
+
+        ScorePlayerTeam ownTeam = scoreboard.getPlayersTeam(mc.thePlayer.getName());
+        ScorePlayerTeam theirTeam = scoreboard.getPlayersTeam(playerName);
+        return ownTeam != null && theirTeam != null && !ownTeam.isSameTeam(theirTeam);
     }
 
     public void onDelete() {
         this.clearPlayers();
-        this.existedMoreThan5Seconds.clear();
         lastObservedWorld = null;
         this.lastWorldJoinTime = 0L;
         resetTabScroll();
     }
 
     private void resetTabScroll() {
+        StatsTab statsTab = getStatsTab();
+        if (statsTab != null) {
+            statsTab.resetScroll();
+        }
+    }
+
+    private StatsTab getStatsTab() {
         TabStats instance = TabStats.getTabStats();
         if (instance == null) {
-            return;
+            return null;
         }
 
         GameOverlayListener overlayListener = instance.getGameOverlayListener();
-        if (overlayListener == null || overlayListener.getStatsTab() == null) {
-            return;
-        }
-
-        overlayListener.getStatsTab().resetScroll();
+        return overlayListener == null ? null : overlayListener.getStatsTab();
     }
 }
@@ -1,12 +1,15 @@
 package tabstats.playerapi.api;
 
 import tabstats.config.ModConfig;
-import tabstats.playerapi.api.games.HypixelGames;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Histogram;
+import tabstats.metrics.Meter;
+import tabstats.metrics.Metrics;
 import tabstats.playerapi.exception.*;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
+import tabstats.playerapi.api.PlayerResponseReader.PlayerResponse;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -16,17 +19,24 @@ import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 
 public class HypixelAPI {
-    public JsonObject achievementObj;
-    public JsonObject playerObject;
-    private static final String PLAYER_ENDPOINT = "https://api.hypixel.net/v2/player?key=%s&uuid=%s";
+    /* Overridable so the load-test harness can point lookups at a local stub */
+    private static final String PLAYER_ENDPOINT = System.getProperty("tabstats.hypixel.endpoint", "https://api.hypixel.net/v2/player") + "?key=%s&uuid=%s";
     private static final PoolingHttpClientConnectionManager HTTP_CONN_MANAGER;
     private static final CloseableHttpClient HTTP_CLIENT;
     private static final RequestConfig REQUEST_CONFIG;
+    private static final HypixelRateLimiter RATE_LIMITER = new HypixelRateLimiter();
+    private static final Meter REQUESTS = Metrics.meter("hypixel.requests");
+    private static final Histogram LATENCY = Metrics.histogram("hypixel.latency");
+    private static final Counter HELD = Metrics.counter("hypixel.held");
+    private static final Counter IO_ERRORS = Metrics.counter("hypixel.errors.io");
+    private static final Counter THROTTLED = Metrics.counter("hypixel.errors.throttled");
+    private static final Counter BAD_JSON = Metrics.counter("hypixel.errors.badjson");
 
     static {
         HTTP_CONN_MANAGER = new PoolingHttpClientConnectionManager();
@@ -42,6 +52,9 @@ public class HypixelAPI {
                 .setConnectionManager(HTTP_CONN_MANAGER)
                 .setDefaultRequestConfig(REQUEST_CONFIG)
                 .build();
+
+        Metrics.gauge("hypixel.ratelimit.limit", () -> RATE_LIMITER.getLimit(ModConfig.getInstance().getApiKey()));
+        Metrics.gauge("hypixel.ratelimit.remaining", () -> RATE_LIMITER.getRemaining(ModConfig.getInstance().getApiKey()));
     }
 
     private String getApiKey() {
@@ -50,93 +63,97 @@ public class HypixelAPI {
 
     /**
      * @param uuid Target player's UUID
-     * @return JsonObject of the player's whole api result
+     * @return JsonObject shaped like the player's api result, trimmed down to the fields TabStats reads
      * @throws InvalidKeyException If Hypixel API Key is Invalid
      * @throws PlayerNullException If Target Player UUID is returned Null from the Hypixel API
      * @throws ApiRequestException If any other exception is thrown during the request
+     * @throws RateLimitedException If the key has no rate limit budget left, the request is not sent
      */
     public JsonObject getWholeObject(String uuid) throws InvalidKeyException, PlayerNullException, ApiRequestException, BadJsonException {
-        JsonObject obj = new JsonObject();
         String apiKey = getApiKey();
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new InvalidKeyException();
-        } else {
-            HttpGet request = new HttpGet(String.format(PLAYER_ENDPOINT, apiKey, uuid.replace("-", "")));
-            request.addHeader("Accept", "application/json");
-            try (CloseableHttpResponse response = HTTP_CLIENT.execute(request)) {
-                HttpEntity entity = response.getEntity();
-                if (entity == null) {
-                    return obj;
-                }
+        }
 
-                try (InputStreamReader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
-                    obj = new JsonParser().parse(reader).getAsJsonObject();
-                } catch (JsonSyntaxException ex) {
-                    throw new BadJsonException();
-                } finally {
-                    EntityUtils.consumeQuietly(entity);
-                }
+        long waitMillis = RATE_LIMITER.tryAcquire(apiKey);
+        if (waitMillis > 0) {
+            HELD.increment();
+            throw new RateLimitedException(waitMillis);
+        }
 
-                boolean throttle = obj.has("throttle") && obj.get("throttle").getAsBoolean();
-                boolean globalThrottle = obj.has("global") && obj.get("global").getAsBoolean();
-                String cause = "";
+        PlayerResponse playerResponse;
+        // Set when Hypixel answered 429, holds how long until the key may be used again
+        long throttledFor = -1L;
+        boolean released = false;
+        HttpGet request = new HttpGet(String.format(PLAYER_ENDPOINT, apiKey, uuid.replace("-", "")));
+        request.addHeader("Accept", "application/json");
+        REQUESTS.mark();
+        long started = System.nanoTime();
+        try (CloseableHttpResponse response = HTTP_CLIENT.execute(request)) {
+            if (response.getStatusLine().getStatusCode() == 429) {
+                THROTTLED.increment();
+                throttledFor = RATE_LIMITER.onThrottled(apiKey, response);
+            } else {
+                RATE_LIMITER.onResponse(apiKey, response);
+            }
+            released = true;
 
-                if (obj.has("cause") && !obj.get("cause").isJsonNull()) {
-                    try {
-                        cause = obj.get("cause").getAsString();
-                    } catch (UnsupportedOperationException ignored) {
-                        cause = "";
-                    }
-                }
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw throttledFor >= 0 ? new ApiThrottleException(false, throttledFor) : new ApiRequestException();
+            }
 
-                boolean success = obj.has("success") && obj.get("success").getAsBoolean();
-                if (!success) {
-                    if (throttle || globalThrottle) {
-                        throw new ApiThrottleException(globalThrottle);
-                    }
-                    if ("Invalid API key".equalsIgnoreCase(cause)) {
-                        throw new InvalidKeyException();
-                    }
-                    throw cause.isEmpty() ? new ApiRequestException() : new ApiRequestException(cause);
+            // Stream the body so only the projected fields are ever materialised
+            try (InputStreamReader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+                playerResponse = PlayerResponseReader.read(reader);
+            } catch (MalformedJsonException | EOFException | IllegalStateException | JsonParseException | NumberFormatException ex) {
+                // EOFException is a body cut off part way, as malformed as any other
+                if (throttledFor >= 0) {
+                    throw new ApiThrottleException(false, throttledFor);
                 }
+                BAD_JSON.increment();
+                throw new BadJsonException();
+            } finally {
+                EntityUtils.consumeQuietly(entity);
+            }
+        } catch (IOException ex) {
+            IO_ERRORS.increment();
+            throw new ApiRequestException("Unable to reach the Hypixel API");
+        } finally {
+            LATENCY.recordSince(started);
+            if (!released) {
+                RATE_LIMITER.onFailure(apiKey);
+            }
+        }
 
-                JsonElement playerElement = obj.get("player");
-                if (playerElement == null || playerElement.isJsonNull()) {
-                    if (throttle || globalThrottle) {
-                        throw new ApiThrottleException(globalThrottle);
-                    }
-                    if ("Invalid API key".equalsIgnoreCase(cause)) {
-                        throw new InvalidKeyException();
-                    }
-                    throw new PlayerNullException();
+        boolean throttle = playerResponse.throttle;
+        boolean globalThrottle = playerResponse.global;
+        String cause = playerResponse.cause == null ? "" : playerResponse.cause;
+
+        if (!playerResponse.success) {
+            if (throttle || globalThrottle || throttledFor >= 0) {
+                if (throttledFor < 0) {
+                    THROTTLED.increment();
                 }
-            } catch (IOException ex) {
-                // Silently handle IO errors
+                throw new ApiThrottleException(globalThrottle, throttledFor);
+            }
+            if ("Invalid API key".equalsIgnoreCase(cause)) {
+                throw new InvalidKeyException();
             }
+            throw cause.isEmpty() ? new ApiRequestException() : new ApiRequestException(cause);
         }
 
-        JsonObject player = obj.get("player").getAsJsonObject();
-        if (player.get("achievements") != null)
-            this.achievementObj = player.get("achievements").getAsJsonObject();
+        JsonObject obj = playerResponse.projectedObject;
+        if (obj == null) {
+            if (throttle || globalThrottle || throttledFor >= 0) {
+                throw new ApiThrottleException(globalThrottle, throttledFor);
+            }
+            if ("Invalid API key".equalsIgnoreCase(cause)) {
+                throw new InvalidKeyException();
+            }
+            throw new PlayerNullException();
+        }
 
-        this.playerObject = player;
         return obj;
     }
-
-    /**
-     * @param wholeObject Target Player's Hypixel API Whole Object
-     * @param game Game Stats to retrieve
-     * @return JsonObject of the specified gameType's Stats
-     */
-    public JsonObject getGameData(JsonObject wholeObject, HypixelGames game) throws GameNullException {
-        JsonObject player = wholeObject.get("player").getAsJsonObject();
-        JsonObject stats = player.get("stats").getAsJsonObject();
-
-        if (stats.get(game.getApiName()) != null) {
-            return stats.get(game.getApiName()).getAsJsonObject();
-        } else {
-            throw new GameNullException(game);
-        }
-    }
-
 }
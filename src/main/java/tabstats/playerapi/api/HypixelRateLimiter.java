@@ -0,0 +1,166 @@
+package tabstats.playerapi.api;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side view of Hypixel's per-key rate limit, kept as a token bucket per API key.
+ * The bucket is refilled from the RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset headers
+ * of every response, minus the requests still in flight, so callers find out a key is spent
+ * before sending a request that would only come back as a 429.
+ */
+final class HypixelRateLimiter {
+    /* Reset is reported in whole seconds, wait slightly past it so the window has really rolled over */
+    private static final long RESET_SLACK_MILLIS = 250L;
+    /* Used when a throttled response carries no hint of when to come back */
+    private static final long DEFAULT_THROTTLE_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Reserves one request for the key.
+     * @return 0 if the request may be sent now, otherwise how many milliseconds until the budget resets
+     */
+    long tryAcquire(String apiKey) {
+        return bucket(apiKey).tryAcquire(System.currentTimeMillis());
+    }
+
+    /**
+     * Releases a reservation made by {@link #tryAcquire(String)} and learns the current budget from the response
+     */
+    void onResponse(String apiKey, HttpResponse response) {
+        bucket(apiKey).update(
+                readIntHeader(response, "RateLimit-Limit"),
+                readIntHeader(response, "RateLimit-Remaining"),
+                readIntHeader(response, "RateLimit-Reset"),
+                System.currentTimeMillis()
+        );
+    }
+
+    /**
+     * Releases a reservation whose response was a 429 and empties the bucket until Hypixel says to come back.
+     * @return Milliseconds until requests should be accepted again
+     */
+    long onThrottled(String apiKey, HttpResponse response) {
+        int resetSeconds = readIntHeader(response, "RateLimit-Reset");
+        if (resetSeconds < 0) {
+            resetSeconds = readIntHeader(response, "Retry-After");
+        }
+
+        long retryAfter = resetSeconds < 0 ? DEFAULT_THROTTLE_MILLIS : TimeUnit.SECONDS.toMillis(resetSeconds) + RESET_SLACK_MILLIS;
+        bucket(apiKey).exhaust(retryAfter, System.currentTimeMillis());
+        return retryAfter;
+    }
+
+    /**
+     * Releases a reservation whose request never produced a response. The token stays spent since the
+     * request may still have reached Hypixel.
+     */
+    void onFailure(String apiKey) {
+        bucket(apiKey).release();
+    }
+
+    /**
+     * @return The key's budget per window as last reported by Hypixel, -1 until a response said so
+     */
+    int getLimit(String apiKey) {
+        Bucket bucket = this.buckets.get(apiKey);
+        return bucket == null ? -1 : bucket.getLimit();
+    }
+
+    /**
+     * @return Requests the key may still send this window, -1 if unknown
+     */
+    int getRemaining(String apiKey) {
+        Bucket bucket = this.buckets.get(apiKey);
+        return bucket == null ? -1 : bucket.getRemaining();
+    }
+
+    private Bucket bucket(String apiKey) {
+        return this.buckets.computeIfAbsent(apiKey, key -> new Bucket());
+    }
+
+    private static int readIntHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        if (header == null || header.getValue() == null) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(header.getValue().trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static final class Bucket {
+        /* -1 until the first response tells us */
+        private int limit = -1;
+        private int remaining = -1;
+        /* 0 while no window is known */
+        private long resetAt;
+        private int inFlight;
+
+        private synchronized long tryAcquire(long now) {
+            if (this.resetAt != 0L && now >= this.resetAt) {
+                // Window rolled over, the full budget is available again
+                this.remaining = this.limit;
+                this.resetAt = 0L;
+            }
+
+            if (this.remaining == 0) {
+                return this.resetAt == 0L ? DEFAULT_THROTTLE_MILLIS : Math.max(1L, this.resetAt - now);
+            }
+
+            if (this.remaining > 0) {
+                this.remaining--;
+            }
+            this.inFlight++;
+            return 0L;
+        }
+
+        private synchronized void update(int limit, int remaining, int resetSeconds, long now) {
+            release();
+
+            long previousResetAt = this.resetAt;
+            if (resetSeconds >= 0) {
+                this.resetAt = now + TimeUnit.SECONDS.toMillis(resetSeconds) + RESET_SLACK_MILLIS;
+            }
+            if (limit >= 0) {
+                this.limit = limit;
+            }
+            if (remaining < 0) {
+                return;
+            }
+
+            // Requests still in flight were sent against this budget but are not in the header yet
+            int budget = Math.max(0, remaining - this.inFlight);
+            boolean newWindow = previousResetAt == 0L || this.resetAt > previousResetAt + TimeUnit.SECONDS.toMillis(1);
+            // Responses can arrive out of order, within a window never trust an older, larger count
+            this.remaining = newWindow || this.remaining < 0 ? budget : Math.min(this.remaining, budget);
+        }
+
+        private synchronized void exhaust(long retryAfterMillis, long now) {
+            release();
+            this.remaining = 0;
+            this.resetAt = now + retryAfterMillis;
+        }
+
+        private synchronized int getLimit() {
+            return this.limit;
+        }
+
+        private synchronized int getRemaining() {
+            return this.remaining;
+        }
+
+        private synchronized void release() {
+            if (this.inFlight > 0) {
+                this.inFlight--;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package tabstats.playerapi.api;
+
+import tabstats.playerapi.exception.ApiRequestException;
+import tabstats.playerapi.exception.BadJsonException;
+import tabstats.playerapi.exception.InvalidKeyException;
+import tabstats.playerapi.exception.PlayerNullException;
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight front for {@link HypixelAPI#getWholeObject(String)}. The first caller for a UUID
+ * performs the request; anyone asking for the same UUID while it is in flight waits for that
+ * request and receives the same result or exception instead of spending another API call.
+ * Projected objects are only ever read after parsing, so sharing one between callers is safe.
+ */
+public class PlayerLookupCoalescer {
+    private final ConcurrentHashMap<String, CompletableFuture<JsonObject>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param uuid Target player's UUID, with or without dashes
+     * @return Projected player object, see {@link HypixelAPI#getWholeObject(String)}
+     */
+    public JsonObject getWholeObject(String uuid) throws InvalidKeyException, PlayerNullException, ApiRequestException, BadJsonException {
+        String key = uuid.replace("-", "").toLowerCase(Locale.ROOT);
+        this.lookups.incrementAndGet();
+
+        CompletableFuture<JsonObject> flight = new CompletableFuture<>();
+        CompletableFuture<JsonObject> existing = this.inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            this.coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            JsonObject result = new HypixelAPI().getWholeObject(uuid);
+            flight.complete(result);
+            return result;
+        } catch (Throwable t) {
+            // Joiners must always be released, whatever went wrong
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            this.inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return Number of lookups requested, including ones that joined an in-flight request
+     */
+    public long getLookupCount() {
+        return this.lookups.get();
+    }
+
+    /**
+     * @return Number of lookups that were answered by another caller's request
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.get();
+    }
+
+    public int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    private static JsonObject await(CompletableFuture<JsonObject> flight) throws InvalidKeyException, PlayerNullException, ApiRequestException, BadJsonException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException("Interrupted while waiting for a shared lookup");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvalidKeyException) {
+                throw (InvalidKeyException) cause;
+            }
+            if (cause instanceof PlayerNullException) {
+                throw (PlayerNullException) cause;
+            }
+            if (cause instanceof ApiRequestException) {
+                throw (ApiRequestException) cause;
+            }
+            if (cause instanceof BadJsonException) {
+                throw (BadJsonException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ApiRequestException("Shared lookup failed");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tabstats.playerapi.api;
+
+import tabstats.playerapi.api.games.HypixelGames;
+import tabstats.playerapi.api.games.bedwars.Bedwars;
+import tabstats.playerapi.api.games.duels.Duels;
+import tabstats.playerapi.api.games.skywars.Skywars;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes the handful of fields TabStats actually reads from a Hypixel player response.
+ * Projected objects keep the same shape as the API ({"player": {..., "achievements": {...}, "stats": {...}}})
+ * so the game classes can read them unchanged.
+ */
+final class PlayerProjection {
+    /* Top level player fields used for ranks, names and lazy features such as session time and network level */
+    static final Set<String> PLAYER_FIELDS = fields(
+            "displayname", "rank", "monthlyPackageRank", "newPackageRank", "rankPlusColor",
+            "lastLogin", "lastLogout", "_id", ILeveling.EXP_FIELD
+    );
+    static final Set<String> ACHIEVEMENT_FIELDS = fields(Bedwars.LEVEL_FIELD);
+    /* Keyed by the game's name in the "stats" section */
+    static final Map<String, Set<String>> GAME_FIELDS;
+
+    static {
+        Map<String, Set<String>> games = new HashMap<>();
+        games.put(HypixelGames.BEDWARS.getApiName(), fields(Bedwars.STAT_FIELDS));
+        games.put(HypixelGames.DUELS.getApiName(), fields(Duels.STAT_FIELDS));
+        games.put(HypixelGames.SKYWARS.getApiName(), fields(Skywars.STAT_FIELDS));
+        GAME_FIELDS = Collections.unmodifiableMap(games);
+    }
+
+    private PlayerProjection() {
+    }
+
+    private static Set<String> fields(String... names) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+    }
+}
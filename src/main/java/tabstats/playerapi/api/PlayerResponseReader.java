@@ -0,0 +1,184 @@
+package tabstats.playerapi.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Set;
+
+/**
+ * Streams a Hypixel /v2/player response in a single pass and keeps only the fields listed in
+ * {@link PlayerProjection}. Everything else (quests, pets, housing, every other game) is skipped
+ * token by token without ever building a node for it.
+ */
+final class PlayerResponseReader {
+    private static final JsonParser PARSER = new JsonParser();
+
+    private PlayerResponseReader() {
+    }
+
+    /**
+     * @param reader Raw response body
+     * @return Envelope flags plus the projected player, if the response contained one
+     * @throws IOException If the body is malformed or the stream fails
+     */
+    static PlayerResponse read(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        PlayerResponse response = new PlayerResponse();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "success":
+                    response.success = readBoolean(json);
+                    break;
+                case "throttle":
+                    response.throttle = readBoolean(json);
+                    break;
+                case "global":
+                    response.global = readBoolean(json);
+                    break;
+                case "cause":
+                    response.cause = readString(json);
+                    break;
+                case "player":
+                    response.projectedObject = readPlayer(json);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+
+        return response;
+    }
+
+    private static JsonObject readPlayer(JsonReader json) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return null;
+        }
+
+        // Always present so game classes can rely on them like they could with a full response
+        JsonObject player = new JsonObject();
+        JsonObject achievements = new JsonObject();
+        JsonObject stats = new JsonObject();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if ("achievements".equals(name)) {
+                readFields(json, achievements, PlayerProjection.ACHIEVEMENT_FIELDS);
+            } else if ("stats".equals(name)) {
+                readStats(json, stats);
+            } else if (PlayerProjection.PLAYER_FIELDS.contains(name)) {
+                readPrimitive(json, player, name);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        player.add("achievements", achievements);
+        player.add("stats", stats);
+
+        JsonObject projected = new JsonObject();
+        projected.add("player", player);
+        return projected;
+    }
+
+    private static void readStats(JsonReader json, JsonObject stats) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String gameName = json.nextName();
+            Set<String> fields = PlayerProjection.GAME_FIELDS.get(gameName);
+            if (fields == null || json.peek() != JsonToken.BEGIN_OBJECT) {
+                json.skipValue();
+                continue;
+            }
+
+            // Sections are only added when present so unplayed games still report as such
+            JsonObject game = new JsonObject();
+            readFields(json, game, fields);
+            stats.add(gameName, game);
+        }
+        json.endObject();
+    }
+
+    private static void readFields(JsonReader json, JsonObject target, Set<String> fields) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (fields.contains(name)) {
+                readPrimitive(json, target, name);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readPrimitive(JsonReader json, JsonObject target, String name) throws IOException {
+        JsonToken token = json.peek();
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER && token != JsonToken.BOOLEAN) {
+            json.skipValue();
+            return;
+        }
+
+        // Let Gson build the primitive so numbers keep their exact textual form
+        JsonElement value = PARSER.parse(json);
+        target.add(name, value);
+    }
+
+    private static boolean readBoolean(JsonReader json) throws IOException {
+        JsonToken token = json.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return json.nextBoolean();
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(json.nextString());
+        }
+
+        json.skipValue();
+        return false;
+    }
+
+    private static String readString(JsonReader json) throws IOException {
+        JsonToken token = json.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return json.nextString();
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(json.nextBoolean());
+        }
+
+        json.skipValue();
+        return "";
+    }
+
+    /**
+     * Envelope of a player response with the player already projected
+     */
+    static final class PlayerResponse {
+        boolean success;
+        boolean throttle;
+        boolean global;
+        String cause = "";
+        JsonObject projectedObject;
+    }
+}
@@ -7,6 +7,7 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
@@ -14,7 +15,12 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Histogram;
+import tabstats.metrics.Meter;
+import tabstats.metrics.Metrics;
 import tabstats.playerapi.exception.ApiRequestException;
 import tabstats.playerapi.exception.BadJsonException;
 import tabstats.util.References;
@@ -37,13 +43,40 @@ import java.util.stream.Collectors;
  * the report type, its reason, and when it was added.
  */
 public class UrchinAPI {
-    private static final String PLAYER_ENDPOINT = "https://urchin.ws/player";
+    /* Overridable so the load-test harness can point lookups at a local stub */
+    private static final String PLAYER_ENDPOINT = System.getProperty("tabstats.urchin.endpoint", "https://urchin.ws/player");
     private static final String USER_AGENT = "TabStats-Urchin/" + References.VERSION;
 
-    private static final CloseableHttpClient HTTP_CLIENT = HttpClients.createDefault();
+    /* Most requests callers run side by side, the pool keeps a connection open for each */
+    public static final int MAX_CONCURRENT_REQUESTS = 3;
+
+    private static final PoolingHttpClientConnectionManager HTTP_CONN_MANAGER;
+    private static final CloseableHttpClient HTTP_CLIENT;
+    private static final RequestConfig REQUEST_CONFIG;
+    private static final Meter REQUESTS = Metrics.meter("urchin.requests");
+    private static final Histogram LATENCY = Metrics.histogram("urchin.latency");
+    /* Names per request, shows how well the dispatcher is batching */
+    private static final Histogram BATCH_SIZE = Metrics.histogram("urchin.batch");
+    private static final Counter ERRORS = Metrics.counter("urchin.errors");
+
+    static {
+        HTTP_CONN_MANAGER = new PoolingHttpClientConnectionManager();
+        HTTP_CONN_MANAGER.setMaxTotal(MAX_CONCURRENT_REQUESTS);
+        HTTP_CONN_MANAGER.setDefaultMaxPerRoute(MAX_CONCURRENT_REQUESTS);
+        REQUEST_CONFIG = RequestConfig.custom()
+                .setConnectTimeout(5_000)
+                .setSocketTimeout(5_000)
+                .setConnectionRequestTimeout(5_000)
+                .build();
+
+        HTTP_CLIENT = HttpClients.custom()
+                .setConnectionManager(HTTP_CONN_MANAGER)
+                .setDefaultRequestConfig(REQUEST_CONFIG)
+                .build();
+    }
 
     /**
-     * Issues a POST to https://urchin.ws/player with the requested usernames and converts the response
+     * Issues a POST to the Urchin /player endpoint with the requested usernames and converts the response
      * into lightweight {@link UrchinReport} instances. Only Urchin report categories enumerated in
      * {@link UrchinReportType} are retained.
      *
@@ -76,7 +109,18 @@ public class UrchinAPI {
         payload.add("usernames", usernameArray);
 
         URI uri = buildUri(apiKey.trim());
-        JsonObject response = execute(uri, payload.toString());
+        REQUESTS.mark();
+        BATCH_SIZE.record(normalizedUsernames.size());
+        long started = System.nanoTime();
+        JsonObject response;
+        try {
+            response = execute(uri, payload.toString());
+        } catch (ApiRequestException | BadJsonException ex) {
+            ERRORS.increment();
+            throw ex;
+        } finally {
+            LATENCY.recordSince(started);
+        }
         return parsePlayerReports(response, normalizedUsernames);
     }
 
@@ -119,7 +163,7 @@ public class UrchinAPI {
         }
     }
 
-    private static Map<String, List<UrchinReport>> parsePlayerReports(JsonObject payload, List<String> requestedUsernames) {
+    static Map<String, List<UrchinReport>> parsePlayerReports(JsonObject payload, List<String> requestedUsernames) {
         Map<String, List<UrchinReport>> results = requestedUsernames.stream()
                 .collect(Collectors.toMap(name -> name, name -> Collections.emptyList(), (a, b) -> a, java.util.LinkedHashMap::new));
 
@@ -0,0 +1,115 @@
+package tabstats.playerapi.api.games;
+
+import tabstats.util.ChatColor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Colour scale for one stat: a value gets the colour of the first bound it is below, or the
+ * "otherwise" colour once it reaches the last bound. Scales are read from the bundled
+ * color_thresholds.json, so they can be tuned there without touching the game utils.
+ */
+public final class ColorThresholds {
+    private static final String RESOURCE = "/assets/tabstats/color_thresholds.json";
+    /* Used for a scale missing from or broken in the resource, so a bad edit greys a column out instead of crashing formatting */
+    private static final ColorThresholds FALLBACK = new ColorThresholds(new double[0], new ChatColor[]{ChatColor.GRAY});
+
+    /* Exclusive upper bounds in ascending order, colors has one more entry for values past the last bound */
+    private final double[] bounds;
+    private final ChatColor[] colors;
+
+    private ColorThresholds(double[] bounds, ChatColor[] colors) {
+        this.bounds = bounds;
+        this.colors = colors;
+    }
+
+    /**
+     * @param name Scale name in color_thresholds.json, e.g. "bedwars.fkdr"
+     * @return The scale, or a plain gray one if the resource does not define it
+     */
+    public static ColorThresholds get(String name) {
+        ColorThresholds thresholds = Tables.TABLES.get(name);
+        return thresholds == null ? FALLBACK : thresholds;
+    }
+
+    public ChatColor colorOf(double value) {
+        // Same answer as the chain of "if (value < bound)" checks it replaces, NaN falls through to the last colour
+        int low = 0;
+        int high = this.bounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (value < this.bounds[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return this.colors[low];
+    }
+
+    public ChatColor colorOf(int value) {
+        return colorOf((double) value);
+    }
+
+    /**
+     * @return The scale, or null if the entry is malformed or its bounds are not strictly ascending
+     */
+    private static ColorThresholds parse(JsonObject entry) {
+        try {
+            JsonArray below = entry.get("below").getAsJsonArray();
+            double[] bounds = new double[below.size()];
+            ChatColor[] colors = new ChatColor[below.size() + 1];
+            for (int i = 0; i < below.size(); i++) {
+                JsonArray step = below.get(i).getAsJsonArray();
+                bounds[i] = step.get(0).getAsDouble();
+                colors[i] = ChatColor.valueOf(step.get(1).getAsString().toUpperCase(Locale.ROOT));
+                if (i > 0 && !(bounds[i] > bounds[i - 1])) {
+                    return null;
+                }
+            }
+            colors[below.size()] = ChatColor.valueOf(entry.get("otherwise").getAsString().toUpperCase(Locale.ROOT));
+            return new ColorThresholds(bounds, colors);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /* Loaded on first use, every game util resolves its scales in static initialisers */
+    private static final class Tables {
+        private static final Map<String, ColorThresholds> TABLES = load();
+
+        private static Map<String, ColorThresholds> load() {
+            Map<String, ColorThresholds> tables = new HashMap<>();
+            try (InputStream in = ColorThresholds.class.getResourceAsStream(RESOURCE)) {
+                if (in != null) {
+                    readTables(new JsonParser().parse(new InputStreamReader(in, StandardCharsets.UTF_8)), tables);
+                }
+            } catch (Exception ignored) {
+                // Unreadable resource leaves every scale on the fallback
+            }
+            return Collections.unmodifiableMap(tables);
+        }
+
+        private static void readTables(JsonElement root, Map<String, ColorThresholds> tables) {
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject().entrySet()) {
+                if (!entry.getValue().isJsonObject()) {
+                    continue;
+                }
+                ColorThresholds thresholds = parse(entry.getValue().getAsJsonObject());
+                if (thresholds != null) {
+                    tables.put(entry.getKey(), thresholds);
+                }
+            }
+        }
+    }
+}
@@ -1,27 +1,46 @@
 package tabstats.playerapi.api.games;
 
-import tabstats.playerapi.api.HypixelAPI;
 import tabstats.playerapi.api.ILeveling;
-import tabstats.playerapi.api.stats.Stat;
+import tabstats.playerapi.api.stats.StatColumns;
+import tabstats.playerapi.api.stats.StatRecord;
+import tabstats.playerapi.exception.GameNullException;
 import tabstats.util.ChatColor;
+import tabstats.util.FixedPoint;
 import tabstats.util.Handler;
+import com.google.gson.JsonObject;
 
 import java.math.BigInteger;
-import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Date;
-import java.util.LinkedList;
-import java.util.List;
-
-public abstract class HGameBase extends HypixelAPI {
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base of every game's stats. The player's api object is only read while the game is constructed:
+ * the profile values below and the game's {@link StatRecord} are copied out of it and nothing keeps
+ * a reference to the JSON afterwards, so cached players hold primitives rather than whole profiles.
+ */
+public abstract class HGameBase {
+    /* Bumped whenever stats change after the player was cached (async stats, Urchin tags) so renderers know to refresh */
+    private static final AtomicInteger STAT_REVISION = new AtomicInteger();
+    /* Column values are built here before being copied out, one per thread since games are built on the cpu lane */
+    private static final ThreadLocal<StringBuilder> FORMAT_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
     private String playerName, playerUUID;
     public boolean isNicked;
     public boolean hasPlayed;
+    private final long lastLogin, lastLogout, firstLogin, networkXp;
 
-    public HGameBase(String playerName, String playerUUID) {
+    /**
+     * @param wholeObject Target Player's Hypixel API Whole Object, only read during construction
+     */
+    public HGameBase(String playerName, String playerUUID, JsonObject wholeObject) {
         this.playerName = playerName;
         this.playerUUID = playerUUID;
+
+        JsonObject playerObject = getPlayerObject(wholeObject);
+        this.lastLogin = readLong(playerObject, "lastLogin");
+        this.lastLogout = readLong(playerObject, "lastLogout");
+        this.firstLogin = readFirstLogin(playerObject);
+        this.networkXp = readLong(playerObject, ILeveling.EXP_FIELD);
     }
 
     /**
@@ -35,20 +54,25 @@ public abstract class HGameBase extends HypixelAPI {
     public abstract HypixelGames getGame();
 
     /**
-     * @return List of every Stat from Game
+     * @return Raw stats read from the Game's section, every slot is 0 or null if the player never played it
      */
-    public abstract List<Stat> getStatList();
+    public abstract StatRecord getStatRecord();
     /**
-     * @return List of every Formatted Stat from Game
+     * @return Formatted columns shown in the tab list, empty if the player has nothing to show
      */
-    public abstract List<Stat> getFormattedStatList();
+    public abstract StatColumns getStatColumns();
 
+    /**
+     * Builds the formatted columns from the stat record
+     */
     public abstract void setFormattedStatList();
 
     /**
-     * Method to set the Game Data
+     * Method to set the Game Data, reads the game's section into the stat record
+     * @param wholeObject Target Player's Hypixel API Whole Object, must not be kept
+     * @return Whether the player has stats for the game
      */
-    public abstract boolean setData(HypixelGames game);
+    public abstract boolean setData(JsonObject wholeObject, HypixelGames game);
 
     public String getPlayerName() {
         return this.playerName;
@@ -66,63 +90,71 @@ public abstract class HGameBase extends HypixelAPI {
         return this.hasPlayed;
     }
 
-    protected List<Stat> setStats(Stat... stats) {
-        LinkedList<Stat> statList = new LinkedList<>();
-
-        for (Stat stat : stats) {
-            stat.setStat();
-            statList.add(stat);
-        }
-
-        setFormattedStatList();
-        return statList;
+    protected static void markStatsChanged() {
+        STAT_REVISION.incrementAndGet();
     }
 
-    protected void setStatsAsync(List<Stat> statList, Stat... stats) {
-        Handler.asExecutor(()-> {
-            for (Stat stat : stats) {
-                stat.setStat();
-                statList.add(stat);
-            }
-            setFormattedStatList();
-        });
+    /**
+     * @return Counter that changes every time a cached player's stats are updated in place
+     */
+    public static int getStatRevision() {
+        return STAT_REVISION.get();
     }
 
-    private int findIndexInArray(Stat[] arr, Stat s) {
-        int index = Arrays.binarySearch(arr, s);
-        return (index < 0) ? -1 : index;
+    /**
+     * @param wholeObject Target Player's Hypixel API Whole Object
+     * @param game Game Stats to retrieve
+     * @return JsonObject of the specified gameType's Stats
+     */
+    protected static JsonObject getGameData(JsonObject wholeObject, HypixelGames game) throws GameNullException {
+        JsonObject player = wholeObject.get("player").getAsJsonObject();
+        JsonObject stats = player.get("stats").getAsJsonObject();
+
+        if (stats.get(game.getApiName()) != null) {
+            return stats.get(game.getApiName()).getAsJsonObject();
+        } else {
+            throw new GameNullException(game);
+        }
     }
 
-    public long getLastLogin() {
+    protected static JsonObject getPlayerObject(JsonObject wholeObject) {
         try {
-            return this.playerObject.get("lastLogin").getAsLong();
+            return wholeObject.get("player").getAsJsonObject();
         } catch (Exception ex) {
-            return 0;
+            return new JsonObject();
         }
     }
 
-    public long getLastLogout() {
+    private static long readLong(JsonObject source, String field) {
         try {
-            return this.playerObject.get("lastLogout").getAsLong();
+            return Double.valueOf(source.get(field).getAsString()).longValue();
         } catch (Exception ex) {
             return 0;
         }
     }
 
-    protected long getFirstLogin() {
+    private static long readFirstLogin(JsonObject playerObject) {
         try {
-            return new BigInteger(this.playerObject.get("_id").getAsString().substring(0, 8), 16).intValue() * 1000L;
+            return new BigInteger(playerObject.get("_id").getAsString().substring(0, 8), 16).intValue() * 1000L;
         } catch (Exception ex) {
             return 0;
         }
     }
 
+    public long getLastLogin() {
+        return this.lastLogin;
+    }
+
+    public long getLastLogout() {
+        return this.lastLogout;
+    }
+
+    protected long getFirstLogin() {
+        return this.firstLogin;
+    }
+
     public long getNetworkXp() {
-        try {
-            return Double.valueOf(this.playerObject.get("networkExp").getAsString()).longValue();
-        } catch (Exception ex) {
-            return 0;
-        }
+        return this.networkXp;
     }
 
     public String getFormattedFirstLogin() {
@@ -155,15 +187,28 @@ public abstract class HGameBase extends HypixelAPI {
         return HH + MM + SS;
     }
 
+    /**
+     * @return int1 / int2 rounded to two decimals, or int1 if int2 is 0
+     */
     protected double formatDouble(int int1, int int2) {
-        if (int2 == 0) {
-            return int1;
-        }
-        String formattedString = new DecimalFormat("##.##").format((double) int1 / (double) int2).replace(",", ".");
-        try {
-            return Double.parseDouble(formattedString);
-        } catch (NumberFormatException e) {
-            return int1;
-        }
+        return FixedPoint.ratio(int1, int2);
+    }
+
+    /**
+     * @return The colour followed by the ratio as {@link #formatDouble(int, int)} rounds it, e.g. "§f2.5"
+     */
+    protected static String formatRatio(ChatColor color, int int1, int int2) {
+        StringBuilder out = FORMAT_BUFFER.get();
+        out.setLength(0);
+        return FixedPoint.appendRatio(out.append(color.toString()), int1, int2).toString();
+    }
+
+    /**
+     * @return The colour followed by the value, e.g. "§6420"
+     */
+    protected static String formatCount(ChatColor color, int value) {
+        StringBuilder out = FORMAT_BUFFER.get();
+        out.setLength(0);
+        return out.append(color.toString()).append(value).toString();
     }
 }
@@ -2,66 +2,63 @@ package tabstats.playerapi.api.games.bedwars;
 
 import tabstats.playerapi.api.games.HypixelGames;
 import tabstats.playerapi.api.games.bedwars.BedwarsUtil.CachedUrchinTag;
-import tabstats.playerapi.api.stats.Stat;
-import tabstats.playerapi.api.stats.StatInt;
-import tabstats.playerapi.api.stats.StatString;
+import tabstats.playerapi.api.stats.StatColumns;
+import tabstats.playerapi.api.stats.StatRecord;
+import tabstats.playerapi.api.stats.StatSchema;
 import tabstats.playerapi.exception.GameNullException;
 import tabstats.util.ChatColor;
 import tabstats.util.Handler;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Bedwars extends BedwarsUtil {
-    private JsonObject bedwarsJson, wholeObject;
-    private List<Stat> statList;
-    private List<Stat> formattedStatList;
-    public Stat gamesPlayed, finalKills, finalDeaths, wins, losses, kills, deaths, bedsBroken, bedsLost, winstreak, star;
-    private CachedUrchinTag cachedUrchinTag;
-    private StatString tagStat;
+    /* Api names of every stat read from the Bedwars section, in slot order after the star */
+    public static final String[] STAT_FIELDS = {
+            "winstreak", "games_played_bedwars", "final_kills_bedwars", "final_deaths_bedwars", "wins_bedwars",
+            "losses_bedwars", "kills_bedwars", "deaths_bedwars", "beds_broken_bedwars", "beds_lost_bedwars"
+    };
+    /* The star lives inside of achievements rather than the Bedwars section */
+    public static final String LEVEL_FIELD = "bedwars_level";
+    private static final StatSchema SCHEMA = new StatSchema(concat(LEVEL_FIELD, STAT_FIELDS), new String[0]);
+    /* Slots into the record, the star first and then STAT_FIELDS in order */
+    public static final int STAR = 0, WINSTREAK = 1, GAMES_PLAYED = 2, FINAL_KILLS = 3, FINAL_DEATHS = 4, WINS = 5,
+            LOSSES = 6, KILLS = 7, DEATHS = 8, BEDS_BROKEN = 9, BEDS_LOST = 10;
+    private static final String TAG_TITLE = "TAG";
+    private final StatRecord stats = SCHEMA.newRecord();
+    private volatile StatColumns formattedStats = StatColumns.EMPTY;
+    private volatile CachedUrchinTag cachedUrchinTag;
+    private volatile long urchinTagReceivedAt;
     private volatile boolean urchinLookupScheduled;
+    private volatile boolean urchinRecheckScheduled;
 
     public Bedwars(String playerName, String playerUUID, JsonObject wholeObject) {
-        super(playerName, playerUUID);
-        this.wholeObject = wholeObject;
-        this.achievementObj = wholeObject.get("player").getAsJsonObject().get("achievements").getAsJsonObject();
-        this.playerObject = wholeObject.get("player").getAsJsonObject();
-        this.statList = new ArrayList<>();
-        this.formattedStatList = new ArrayList<>();
-
-        if (setData(HypixelGames.BEDWARS)) {
-            this.statList = setStats(
-                    // "bedwars_level" is the Api name of the star.
-                    // If you wish to add any other stats, you add them like this, statName is whatever name you want to call it, then jsonName is the name of the stat in the API
-                    // and the 3rd parameter is the json object in which this api stat resides. So winstreak is inside of the bedwars json object along with all the other bedwars
-                    // statistics. For some reason, bedwars level is inside of your achievements?? idk why
-                    this.star = new StatInt("Level", "bedwars_level", this.achievementObj),
-                    this.winstreak = new StatInt("Winstreak", "winstreak", this.bedwarsJson),
-                    this.gamesPlayed = new StatInt("Games Played", "games_played_bedwars", this.bedwarsJson),
-                    this.finalKills = new StatInt("Final Kills", "final_kills_bedwars", this.bedwarsJson),
-                    this.finalDeaths = new StatInt("Final Deaths", "final_deaths_bedwars", this.bedwarsJson),
-                    this.wins = new StatInt("Wins", "wins_bedwars", this.bedwarsJson),
-                    this.losses = new StatInt("Losses", "losses_bedwars", this.bedwarsJson),
-                    this.kills = new StatInt("Kills", "kills_bedwars", this.bedwarsJson),
-                    this.deaths = new StatInt("Deaths", "deaths_bedwars", this.bedwarsJson),
-                    this.bedsBroken = new StatInt("Beds Broken", "beds_broken_bedwars", this.bedwarsJson),
-                    this.bedsLost = new StatInt("Beds Lost", "beds_lost_bedwars", this.bedwarsJson));
-        }
+        super(playerName, playerUUID, wholeObject);
+        setData(wholeObject, HypixelGames.BEDWARS);
+        setFormattedStatList();
+    }
+
+    private static String[] concat(String first, String[] rest) {
+        String[] fields = new String[rest.length + 1];
+        fields[0] = first;
+        System.arraycopy(rest, 0, fields, 1, rest.length);
+        return fields;
     }
 
     @Override
-    public boolean setData(HypixelGames game) {
+    public boolean setData(JsonObject wholeObject, HypixelGames game) {
         this.isNicked = false;
         this.hasPlayed = false;
 
         try {
-            if (!this.isNicked) {
-                this.hasPlayed = true;
-                this.bedwarsJson = getGameData(wholeObject, game);
-                return true;
+            JsonObject bedwarsJson = getGameData(wholeObject, game);
+            // For some reason, bedwars level is inside of your achievements?? idk why
+            JsonElement achievements = getPlayerObject(wholeObject).get("achievements");
+            this.stats.readInt(STAR, achievements != null && achievements.isJsonObject() ? achievements.getAsJsonObject() : null);
+            for (int slot = WINSTREAK; slot < SCHEMA.getIntCount(); slot++) {
+                this.stats.readInt(slot, bedwarsJson);
             }
-            return false;
+            this.hasPlayed = true;
+            return true;
         } catch (GameNullException ex) {
             return false;
         }
@@ -78,81 +75,52 @@ public class Bedwars extends BedwarsUtil {
     }
 
     @Override
-    public List<Stat> getStatList() {
-        return this.statList;
+    public StatRecord getStatRecord() {
+        return this.stats;
     }
 
-    // this is what we're grabbing as the stat list.
-    // so the first stat in the for loop that we'll encounter is Star
-    // then we'll encounter WS
-    // then FKDR
-    // the for loop will grab these values accordingly and store it into the statValue string
-    /* retrieves the formatted stat list */
     @Override
-    public List<Stat> getFormattedStatList() {
-        List<Stat> returnList = new ArrayList<>(this.formattedStatList);
-
-        // If player has no stats, return empty list so they show only their name
-        int starVal = 0;
-        try { if (this.star != null) starVal = ((StatInt)this.star).getValue(); } catch (Exception ignored) {}
-        StatString star = new StatString("STAR");
-        star.setValue(this.getStarWithColor(starVal));
-
-        // Insert STAR at index 1 so TAG stays as the first column
-        boolean hasTagColumn = this.tagStat != null && !returnList.isEmpty() && returnList.get(0) == this.tagStat;
-        int insertIndex = hasTagColumn ? Math.min(1, returnList.size()) : 0;
-        returnList.add(insertIndex, star);
-        if (!this.hasPlayed || this.bedwarsJson == null) {
-            return returnList;
-        }
-
-        return returnList;
+    public StatColumns getStatColumns() {
+        return this.formattedStats;
     }
 
-    /* sets the formatted stat list when the player is first grabbed */
-    /* only set a single time */
+    /* builds the columns once when the player is first grabbed, only the TAG value is swapped in later */
     @Override
     public void setFormattedStatList() {
-        boolean hasUrchinKey = !getActiveUrchinApiKey().isEmpty();
+        StatColumns.Builder columns = StatColumns.builder();
+        boolean hasBedwars = this.hasPlayed;
+        boolean hasUrchinKey = hasBedwars && !getActiveUrchinApiKey().isEmpty();
         if (hasUrchinKey) {
-            if (this.tagStat == null) {
-                this.tagStat = new StatString("TAG");
-            }
-            this.tagStat.setValue("");
-            this.formattedStatList.add(this.tagStat);
-            scheduleUrchinLookup();
-        } else {
-            this.tagStat = null;
+            // TAG stays as the first column, filled in once Urchin answers
+            columns.add(TAG_TITLE, "");
         }
 
-        StatString ws = new StatString("WS");
-        ws.setValue(formatWsValue());
-        this.formattedStatList.add(ws);
-
-        StatString fkdr = new StatString("FKDR");
-        fkdr.setValue(this.getFkdrColor(this.getFkdr(this)).toString() + this.getFkdr(this));
-        this.formattedStatList.add(fkdr);
-
-        StatString finals = new StatString("FINALS");
-        finals.setValue(/* this sets the color >>*/ this.getFinalsColor(((StatInt)this.finalKills).getValue()).toString() + /* this is what's actually displayed >>>*/ ((StatInt)this.finalKills).getValue());
-        this.formattedStatList.add(finals);
-
-        StatString wlr = new StatString("WLR");
-        wlr.setValue(this.getWlrColor(this.getWlr(this)).toString() + this.getWlr(this));
-        this.formattedStatList.add(wlr);
-
-        StatString wins = new StatString("WINS");
-        wins.setValue(/* this sets the color >>*/ this.getWinsColor(((StatInt)this.wins).getValue()).toString() + /* this is what's actually displayed >>>*/ ((StatInt)this.wins).getValue());
-        this.formattedStatList.add(wins);
+        columns.add("STAR", this.getStarWithColor(this.stats.getInt(STAR)));
+        if (hasBedwars) {
+            int finalKills = this.stats.getInt(FINAL_KILLS);
+            int wins = this.stats.getInt(WINS);
+            double fkdr = this.getFkdr(this);
+            double wlr = this.getWlr(this);
+            double bblr = this.getBblr(this);
+
+            columns.add("WS", formatWsValue())
+                    .add("FKDR", formatRatio(this.getFkdrColor(fkdr), finalKills, this.stats.getInt(FINAL_DEATHS)))
+                    .add("FINALS", formatCount(this.getFinalsColor(finalKills), finalKills))
+                    .add("WLR", formatRatio(this.getWlrColor(wlr), wins, this.stats.getInt(LOSSES)))
+                    .add("WINS", formatCount(this.getWinsColor(wins), wins))
+                    .add("BBLR", formatRatio(this.getBblrColor(bblr), this.stats.getInt(BEDS_BROKEN), this.stats.getInt(BEDS_LOST)));
+        }
+        this.formattedStats = columns.build();
 
-        StatString bblr = new StatString("BBLR");
-        bblr.setValue(this.getBblrColor(this.getBblr(this)).toString() + this.getBblr(this));
-        this.formattedStatList.add(bblr);
+        if (hasUrchinKey) {
+            scheduleUrchinLookup();
+        }
     }
 
     private void scheduleUrchinLookup() {
-        if (this.cachedUrchinTag != null) {
-            applyUrchinResult(this.cachedUrchinTag);
+        CachedUrchinTag current = this.cachedUrchinTag;
+        if (current != null && !(current.isPending() && System.currentTimeMillis() - this.urchinTagReceivedAt >= UrchinTagCache.PENDING_TTL_MILLIS)) {
+            applyUrchinResult(current);
             return;
         }
 
@@ -177,11 +145,10 @@ public class Bedwars extends BedwarsUtil {
         }
 
         this.urchinLookupScheduled = true;
-        Handler.asExecutor(() -> {
-            enqueueUrchinLookup(identity, result -> {
-                this.urchinLookupScheduled = false;
-                applyUrchinResult(result);
-            });
+        // Only queues the identity, the dispatcher does the batching and the network call on its own lanes
+        enqueueUrchinLookup(identity, result -> {
+            this.urchinLookupScheduled = false;
+            applyUrchinResult(result);
         });
     }
 
@@ -191,26 +158,36 @@ public class Bedwars extends BedwarsUtil {
         }
 
         this.cachedUrchinTag = data;
-        StatString tag = this.tagStat;
-        if (tag != null) {
-            tag.setValue(data.getDisplayValue());
+        this.urchinTagReceivedAt = System.currentTimeMillis();
+        StatColumns columns = this.formattedStats;
+        int tagIndex = columns.indexOf(TAG_TITLE);
+        if (tagIndex >= 0) {
+            this.formattedStats = columns.withValue(tagIndex, data.getDisplayValue());
+            markStatsChanged();
         }
         announceTagIfNeeded(data);
+
+        if (data.isPending() && !this.urchinRecheckScheduled) {
+            // Failed or unanswered lookups are only cached briefly, ask again once that runs out
+            this.urchinRecheckScheduled = true;
+            Handler.schedule(this::recheckPendingUrchinTag, UrchinTagCache.PENDING_TTL_MILLIS);
+        }
     }
 
-    private String formatWsValue() {
-        if (!(this.winstreak instanceof StatInt)) {
-            return ChatColor.GRAY + "-";
+    /* runs on the scheduler thread, only queues the identity again */
+    private void recheckPendingUrchinTag() {
+        this.urchinRecheckScheduled = false;
+        if (isStillTracked() && !getActiveUrchinApiKey().isEmpty()) {
+            scheduleUrchinLookup();
         }
+    }
 
-        StatInt wsStat = (StatInt) this.winstreak;
-        if (!wsStat.isLoadedValue()) {
+    private String formatWsValue() {
+        if (!this.stats.isLoaded(WINSTREAK)) {
             return ChatColor.GRAY + "-";
         }
 
-        int value = wsStat.getValue();
-        return this.getWSColor(value).toString() + value;
+        int value = this.stats.getInt(WINSTREAK);
+        return formatCount(this.getWSColor(value), value);
     }
-
-
 }
@@ -4,17 +4,22 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.util.ChatComponentText;
 import tabstats.TabStats;
 import tabstats.config.ModConfig;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Histogram;
+import tabstats.metrics.Metrics;
 import tabstats.playerapi.HPlayer;
 import tabstats.playerapi.StatWorld;
 import tabstats.playerapi.api.UrchinAPI;
 import tabstats.playerapi.api.UrchinAPI.UrchinReport;
 import tabstats.playerapi.api.UrchinAPI.UrchinReportType;
+import tabstats.playerapi.api.games.ColorThresholds;
 import tabstats.playerapi.api.games.HGameBase;
-import tabstats.playerapi.api.stats.StatInt;
+import tabstats.playerapi.api.stats.StatRecord;
 import tabstats.playerapi.exception.ApiRequestException;
 import tabstats.playerapi.exception.BadJsonException;
 import tabstats.util.ChatColor;
 import tabstats.util.Handler;
+import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -26,8 +31,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -45,7 +50,7 @@ public abstract class BedwarsUtil extends HGameBase {
             entry(UrchinReportType.INFO, ChatColor.DARK_GRAY + "I", ChatColor.DARK_GRAY + "Info")
     };
     private static final Map<UrchinReportType, UrchinReportMatrixEntry> URCHIN_REPORT_LOOKUP = new EnumMap<>(UrchinReportType.class);
-    private static final ConcurrentMap<String, CachedUrchinTag> URCHIN_TAG_CACHE = new ConcurrentHashMap<>();
+    private static final UrchinTagCache URCHIN_TAG_CACHE = new UrchinTagCache();
     private static final UrchinLookupDispatcher URCHIN_LOOKUP_DISPATCHER = new UrchinLookupDispatcher();
     private static final UrchinReportType[] URCHIN_PRIORITY = new UrchinReportType[]{
             UrchinReportType.CONFIRMED_CHEATER,
@@ -59,6 +64,12 @@ public abstract class BedwarsUtil extends HGameBase {
             UrchinReportType.INFO
     };
     protected static final String NO_RESPONSE_TAG = ChatColor.GRAY + "-";
+    private static final ColorThresholds BEDWARS_FKDR = ColorThresholds.get("bedwars.fkdr");
+    private static final ColorThresholds BEDWARS_WLR = ColorThresholds.get("bedwars.wlr");
+    private static final ColorThresholds BEDWARS_BBLR = ColorThresholds.get("bedwars.bblr");
+    private static final ColorThresholds BEDWARS_WINSTREAK = ColorThresholds.get("bedwars.winstreak");
+    private static final ColorThresholds BEDWARS_FINALS = ColorThresholds.get("bedwars.finals");
+    private static final ColorThresholds BEDWARS_WINS = ColorThresholds.get("bedwars.wins");
 
     static {
         for (UrchinReportMatrixEntry entry : URCHIN_REPORT_MATRIX) {
@@ -70,79 +81,42 @@ public abstract class BedwarsUtil extends HGameBase {
         return new UrchinReportMatrixEntry(type, displayValue, chatLabel);
     }
 
-    public BedwarsUtil(String playerName, String playerUUID) {
-        super(playerName, playerUUID);
+    public BedwarsUtil(String playerName, String playerUUID, JsonObject wholeObject) {
+        super(playerName, playerUUID, wholeObject);
     }
 
     public double getFkdr(Bedwars bw) {
-        try {
-            if (bw == null || bw.finalKills == null || bw.finalDeaths == null) return 0D;
-            return this.formatDouble(((StatInt)bw.finalKills).getValue(), ((StatInt)bw.finalDeaths).getValue());
-        } catch (Exception ignored) {
-            return 0D;
-        }
+        if (bw == null) return 0D;
+        StatRecord stats = bw.getStatRecord();
+        return this.formatDouble(stats.getInt(Bedwars.FINAL_KILLS), stats.getInt(Bedwars.FINAL_DEATHS));
     }
 
     public ChatColor getFkdrColor(double fkdr) {
-        if (fkdr < 1.5) return ChatColor.GRAY;
-        if (fkdr < 3.5) return ChatColor.WHITE;
-        if (fkdr < 5) return ChatColor.GOLD;
-        if (fkdr < 10) return ChatColor.DARK_GREEN;
-        if (fkdr < 20) return ChatColor.RED;
-        if (fkdr < 50) return ChatColor.DARK_RED;
-        if (fkdr < 100) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return BEDWARS_FKDR.colorOf(fkdr);
     }
 
     public double getWlr(Bedwars bw) {
-        try {
-            if (bw == null || bw.wins == null || bw.losses == null) return 0D;
-            return this.formatDouble(((StatInt)bw.wins).getValue(), ((StatInt)bw.losses).getValue());
-        } catch (Exception ignored) {
-            return 0D;
-        }
+        if (bw == null) return 0D;
+        StatRecord stats = bw.getStatRecord();
+        return this.formatDouble(stats.getInt(Bedwars.WINS), stats.getInt(Bedwars.LOSSES));
     }
 
     public ChatColor getWlrColor(double wlr) {
-        if (wlr < 1) return ChatColor.GRAY;
-        if (wlr < 2) return ChatColor.WHITE;
-        if (wlr < 3) return ChatColor.GOLD;
-        if (wlr < 5) return ChatColor.DARK_GREEN;
-        if (wlr < 10) return ChatColor.RED;
-        if (wlr < 15) return ChatColor.DARK_RED;
-        if (wlr < 50) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return BEDWARS_WLR.colorOf(wlr);
     }
 
     public double getBblr(Bedwars bw) {
-        try {
-            if (bw == null || bw.bedsBroken == null || bw.bedsLost == null) return 0D;
-            return this.formatDouble(((StatInt)bw.bedsBroken).getValue(), ((StatInt)bw.bedsLost).getValue());
-        } catch (Exception ignored) {
-            return 0D;
-        }
+        if (bw == null) return 0D;
+        StatRecord stats = bw.getStatRecord();
+        return this.formatDouble(stats.getInt(Bedwars.BEDS_BROKEN), stats.getInt(Bedwars.BEDS_LOST));
     }
 
     public ChatColor getBblrColor(double bblr) {
-        if (bblr < 1.5) return ChatColor.GRAY;
-        if (bblr < 2.5) return ChatColor.WHITE;
-        if (bblr < 3.5) return ChatColor.GOLD;
-        if (bblr < 5) return ChatColor.DARK_GREEN;
-        if (bblr < 7.5) return ChatColor.RED;
-        if (bblr < 10) return ChatColor.DARK_RED;
-        if (bblr < 15) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return BEDWARS_BBLR.colorOf(bblr);
     }
 
     public ChatColor getWSColor(double ws) {
-        if (ws < 5) return ChatColor.GRAY;
-        if (ws < 10) return ChatColor.WHITE;
-        if (ws < 20) return ChatColor.GOLD;
-        if (ws < 35) return ChatColor.DARK_GREEN;
-        if (ws < 50) return ChatColor.RED;
-        if (ws < 75) return ChatColor.DARK_RED;
-        if (ws < 100) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return BEDWARS_WINSTREAK.colorOf(ws);
     }
 
     public String getStarWithColor(int star) {
@@ -164,25 +138,11 @@ public abstract class BedwarsUtil extends HGameBase {
     }
 
     public ChatColor getFinalsColor(int finals) {
-        if (finals < 300) return ChatColor.GRAY;
-        if (finals < 500) return ChatColor.WHITE;
-        if (finals < 1000) return ChatColor.GOLD;
-        if (finals < 5000) return ChatColor.DARK_GREEN;
-        if (finals < 10000) return ChatColor.RED;
-        if (finals < 15000) return ChatColor.DARK_RED;
-        if (finals < 20000) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return BEDWARS_FINALS.colorOf(finals);
     }
 
     public ChatColor getWinsColor(int wins) {
-        if (wins < 100) return ChatColor.GRAY;
-        if (wins < 300) return ChatColor.WHITE;
-        if (wins < 500) return ChatColor.GOLD;
-        if (wins < 1000) return ChatColor.DARK_GREEN;
-        if (wins < 3000) return ChatColor.RED;
-        if (wins < 5000) return ChatColor.DARK_RED;
-        if (wins < 10000) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return BEDWARS_WINS.colorOf(wins);
     }
 
     protected void enqueueUrchinLookup(String identity, Consumer<CachedUrchinTag> callback) {
@@ -228,8 +188,9 @@ public abstract class BedwarsUtil extends HGameBase {
                 results.put(identity, toCachedUrchinTag(identity, reports));
             }
         } catch (ApiRequestException | BadJsonException ex) {
+            // Cached briefly so a failing Urchin is not asked about the same names again straight away
             for (String identity : identities) {
-                results.put(identity, createPendingTag());
+                results.put(identity, cacheTag(identity, createPendingTag()));
             }
         }
 
@@ -237,56 +198,164 @@ public abstract class BedwarsUtil extends HGameBase {
     }
 
     /**
-     * Batches Urchin lookups so repeated requests share a single API call.
+     * Batches Urchin lookups so repeated requests share an API call. A batch goes out once it is full
+     * or once its oldest name has waited out the deadline, whichever comes first. The deadline doubles
+     * for every request already running, so a slow API collects bigger batches instead of a stream of
+     * tiny ones. A deep queue is split evenly over several requests running side by side instead of
+     * one oversized POST.
      */
     private static final class UrchinLookupDispatcher {
-        // Small delay to accumulate simultaneous requests without feeling slow.
-        private static final long BATCH_DEBOUNCE_MS = 125L;
+        /* Longest a name waits for company while nothing else is in flight, short enough that tags do not feel slow */
+        private static final long FLUSH_DEADLINE_MS = 125L;
+        private static final int MAX_BATCH_SIZE = 32;
+        private static final int MAX_IN_FLIGHT = UrchinAPI.MAX_CONCURRENT_REQUESTS;
+        /* Time from a name being queued to its batch being sent */
+        private static final Histogram QUEUE_WAIT = Metrics.histogram("urchin.queue.wait");
+        private static final Counter SIZE_FLUSHES = Metrics.counter("urchin.flush.size");
+        private static final Counter DEADLINE_FLUSHES = Metrics.counter("urchin.flush.deadline");
 
         private final Object lock = new Object();
-        private final LinkedHashMap<String, List<Consumer<CachedUrchinTag>>> pendingLookups = new LinkedHashMap<>();
-        private boolean draining;
+        private final LinkedHashMap<String, PendingLookup> pendingLookups = new LinkedHashMap<>();
+        /* All guarded by lock */
+        private int inFlight;
+        private ScheduledFuture<?> flushTimer;
+        private long flushDueAt;
+
+        UrchinLookupDispatcher() {
+            Metrics.gauge("urchin.queued", () -> {
+                synchronized (lock) {
+                    return pendingLookups.size();
+                }
+            });
+            Metrics.gauge("urchin.inflight", () -> {
+                synchronized (lock) {
+                    return inFlight;
+                }
+            });
+        }
 
         void enqueue(String identity, Consumer<CachedUrchinTag> callback) {
             synchronized (lock) {
-                pendingLookups.computeIfAbsent(identity, key -> new ArrayList<>()).add(callback);
-                if (!draining) {
-                    draining = true;
-                    Handler.asExecutor(this::processLoop);
+                PendingLookup pending = pendingLookups.get(identity);
+                if (pending == null) {
+                    pending = new PendingLookup(System.nanoTime());
+                    pendingLookups.put(identity, pending);
                 }
+                pending.callbacks.add(callback);
+                armFlush();
             }
         }
 
-        private void processLoop() {
-            while (true) {
-                delay(BATCH_DEBOUNCE_MS);
-                List<LookupRequest> batch = pollBatch();
-                if (!batch.isEmpty()) {
-                    dispatch(batch);
+        /* must hold the lock; (re)schedules the flush for when the queue is full or its oldest name is due */
+        private void armFlush() {
+            if (pendingLookups.isEmpty() || inFlight >= MAX_IN_FLIGHT) {
+                // Whatever is left goes out when a running batch completes
+                return;
+            }
+
+            long now = System.nanoTime();
+            long dueAt = now;
+            if (pendingLookups.size() < MAX_BATCH_SIZE) {
+                dueAt = oldestQueuedAt() + TimeUnit.MILLISECONDS.toNanos(FLUSH_DEADLINE_MS << inFlight);
+            }
+            if (flushTimer != null) {
+                if (flushDueAt - dueAt <= 0) {
+                    return;
                 }
-                synchronized (lock) {
-                    if (pendingLookups.isEmpty()) {
-                        draining = false;
-                        return;
+                flushTimer.cancel(false);
+            }
+
+            flushDueAt = dueAt;
+            flushTimer = Handler.schedule(this::flush, TimeUnit.NANOSECONDS.toMillis(Math.max(0L, dueAt - now)));
+        }
+
+        private long oldestQueuedAt() {
+            // Requeued names keep their original time but sit at the back, so this cannot just take the first entry
+            long oldest = 0L;
+            boolean first = true;
+            for (PendingLookup pending : pendingLookups.values()) {
+                if (first || pending.queuedAt - oldest < 0) {
+                    oldest = pending.queuedAt;
+                    first = false;
+                }
+            }
+            return oldest;
+        }
+
+        /* runs on the scheduler thread, the requests themselves go to the io lane */
+        private void flush() {
+            List<List<LookupRequest>> batches = pollBatches();
+            for (List<LookupRequest> batch : batches) {
+                if (!Handler.io().execute(() -> {
+                    try {
+                        dispatch(batch);
+                    } finally {
+                        afterDispatch();
+                    }
+                })) {
+                    // No room on the io lane right now, put the batch back and try again after another window
+                    requeue(batch);
+                }
+            }
+        }
+
+        private void afterDispatch() {
+            synchronized (lock) {
+                inFlight--;
+                armFlush();
+            }
+        }
+
+        private void requeue(List<LookupRequest> batch) {
+            synchronized (lock) {
+                for (LookupRequest request : batch) {
+                    PendingLookup pending = pendingLookups.get(request.identity);
+                    if (pending == null) {
+                        pending = new PendingLookup(request.queuedAt);
+                        pendingLookups.put(request.identity, pending);
                     }
+                    pending.callbacks.addAll(request.callbacks);
+                }
+                inFlight--;
+                if (flushTimer == null && inFlight < MAX_IN_FLIGHT) {
+                    flushDueAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_DEADLINE_MS);
+                    flushTimer = Handler.schedule(this::flush, FLUSH_DEADLINE_MS);
                 }
             }
         }
 
-        private List<LookupRequest> pollBatch() {
+        /**
+         * Takes as many batches as there are free slots and the queue needs, sized evenly so 40 names
+         * become two requests of 20 rather than 32 and 8
+         */
+        private List<List<LookupRequest>> pollBatches() {
             synchronized (lock) {
-                if (pendingLookups.isEmpty()) {
+                flushTimer = null;
+                int queued = pendingLookups.size();
+                int free = MAX_IN_FLIGHT - inFlight;
+                if (queued == 0 || free <= 0) {
                     return Collections.emptyList();
                 }
 
-                List<LookupRequest> batch = new ArrayList<>(pendingLookups.size());
-                Iterator<Map.Entry<String, List<Consumer<CachedUrchinTag>>>> iterator = pendingLookups.entrySet().iterator();
-                while (iterator.hasNext()) {
-                    Map.Entry<String, List<Consumer<CachedUrchinTag>>> entry = iterator.next();
-                    batch.add(new LookupRequest(entry.getKey(), new ArrayList<>(entry.getValue())));
-                    iterator.remove();
+                (queued >= MAX_BATCH_SIZE ? SIZE_FLUSHES : DEADLINE_FLUSHES).increment();
+                int count = Math.min(free, (queued + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE);
+                int size = Math.min(MAX_BATCH_SIZE, (queued + count - 1) / count);
+                List<List<LookupRequest>> batches = new ArrayList<>(count);
+                Iterator<Map.Entry<String, PendingLookup>> iterator = pendingLookups.entrySet().iterator();
+                for (int i = 0; i < count && iterator.hasNext(); i++) {
+                    List<LookupRequest> batch = new ArrayList<>(size);
+                    while (batch.size() < size && iterator.hasNext()) {
+                        Map.Entry<String, PendingLookup> entry = iterator.next();
+                        batch.add(new LookupRequest(entry.getKey(), entry.getValue().queuedAt, entry.getValue().callbacks));
+                        iterator.remove();
+                    }
+                    batches.add(batch);
                 }
-                return batch;
+
+                inFlight += batches.size();
+                // A queue deeper than the free slots could take waits for the next completion
+                armFlush();
+                return batches;
             }
         }
 
@@ -297,6 +366,7 @@ public abstract class BedwarsUtil extends HGameBase {
 
             List<String> identities = new ArrayList<>(batch.size());
             for (LookupRequest request : batch) {
+                QUEUE_WAIT.recordSince(request.queuedAt);
                 identities.add(request.identity);
             }
 
@@ -316,23 +386,23 @@ public abstract class BedwarsUtil extends HGameBase {
             }
         }
 
-        private void delay(long millis) {
-            if (millis <= 0) {
-                return;
-            }
-            try {
-                Thread.sleep(millis);
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
+        private static final class PendingLookup {
+            private final long queuedAt;
+            private final List<Consumer<CachedUrchinTag>> callbacks = new ArrayList<>(1);
+
+            private PendingLookup(long queuedAt) {
+                this.queuedAt = queuedAt;
             }
         }
 
         private static final class LookupRequest {
             private final String identity;
+            private final long queuedAt;
             private final List<Consumer<CachedUrchinTag>> callbacks;
 
-            private LookupRequest(String identity, List<Consumer<CachedUrchinTag>> callbacks) {
+            private LookupRequest(String identity, long queuedAt, List<Consumer<CachedUrchinTag>> callbacks) {
                 this.identity = identity;
+                this.queuedAt = queuedAt;
                 this.callbacks = callbacks == null ? Collections.emptyList() : callbacks;
             }
         }
@@ -344,7 +414,7 @@ public abstract class BedwarsUtil extends HGameBase {
         }
 
         if (reports == null) {
-            return createPendingTag();
+            return cacheTag(identity, createPendingTag());
         }
 
         UrchinReport report = extractPriorityReport(reports);
@@ -375,15 +445,11 @@ public abstract class BedwarsUtil extends HGameBase {
     }
 
     private static CachedUrchinTag buildTagFromReport(UrchinReport report) {
-        String display = formatUrchinTag(report.getType());
-        String chatLabel = formatUrchinChatTag(report.getType());
-        return new CachedUrchinTag(
-                display,
-                chatLabel,
-                report.getType(),
-                sanitize(report.getReason()),
-                formatDate(report.getAddedOn())
-        );
+        return buildTag(report.getType(), sanitize(report.getReason()), formatDate(report.getAddedOn()));
+    }
+
+    private static CachedUrchinTag buildTag(UrchinReportType type, String reason, String addedOn) {
+        return new CachedUrchinTag(formatUrchinTag(type), formatUrchinChatTag(type), type, reason, addedOn);
     }
 
     protected static CachedUrchinTag createNoHitTag() {
@@ -456,9 +522,16 @@ public abstract class BedwarsUtil extends HGameBase {
         return URCHIN_REPORT_LOOKUP.get(type);
     }
 
+    /**
+     * Reads the Urchin tag file ahead of the first Bedwars row, call from a background thread
+     */
+    public static void warmUrchinTagCache() {
+        URCHIN_TAG_CACHE.ensureLoaded();
+    }
+
     protected static CachedUrchinTag getCachedUrchinTag(String identity) {
         String normalized = normalizeIdentity(identity);
-        return normalized == null ? null : URCHIN_TAG_CACHE.get(normalized);
+        return normalized == null ? null : URCHIN_TAG_CACHE.getTag(normalized);
     }
 
     private static CachedUrchinTag cacheTag(String identity, CachedUrchinTag value) {
@@ -466,15 +539,7 @@ public abstract class BedwarsUtil extends HGameBase {
         if (normalized == null || value == null) {
             return value;
         }
-
-        CachedUrchinTag stored = URCHIN_TAG_CACHE.compute(normalized, (key, existing) -> {
-            if (existing != null && existing.samePayload(value)) {
-                return existing;
-            }
-            return value;
-        });
-
-        return stored == null ? value : stored;
+        return URCHIN_TAG_CACHE.store(normalized, value);
     }
 
     private static String normalizeIdentity(String value) {
@@ -489,6 +554,8 @@ public abstract class BedwarsUtil extends HGameBase {
         if (data == null || !data.shouldAnnounce() || !data.markAnnounced()) {
             return;
         }
+        // Remembered on disk so the warning is not repeated after a restart
+        URCHIN_TAG_CACHE.markAnnounced(normalizeIdentity(getLookupIdentity()), data);
 
         Minecraft mc = Minecraft.getMinecraft();
         if (mc == null) {
@@ -533,6 +600,16 @@ public abstract class BedwarsUtil extends HGameBase {
         return value.substring(0, insertIndex) + ChatColor.BOLD + value.substring(insertIndex);
     }
 
+    /**
+     * @return Whether this is still the Bedwars record of a player in the world, so asking about them is worth a request
+     */
+    protected boolean isStillTracked() {
+        TabStats tabStats = TabStats.getTabStats();
+        StatWorld statWorld = tabStats == null ? null : tabStats.getStatWorld();
+        HPlayer player = statWorld == null ? null : statWorld.getPlayerByName(getPlayerName());
+        return player != null && player.hasGameData() && player.getGame(getGame().getGameName()) == this;
+    }
+
     protected String getFormattedPlayerLabel() {
         String fallbackName = getPlayerName();
         TabStats tabStats = TabStats.getTabStats();
@@ -613,6 +690,31 @@ public abstract class BedwarsUtil extends HGameBase {
             return announced.compareAndSet(false, true);
         }
 
+        /* No answer yet, or the lookup failed */
+        boolean isPending() {
+            return type == null && displayValue.isEmpty();
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            if (type != null) {
+                json.addProperty("type", type.name());
+                json.addProperty("reason", reason);
+                json.addProperty("addedOn", addedOn);
+            }
+            json.addProperty("announced", announced.get());
+            return json;
+        }
+
+        /* display strings are rebuilt from the type, so a restored tag picks up formatting changes */
+        static CachedUrchinTag fromJson(JsonObject json) {
+            CachedUrchinTag tag = json.has("type")
+                    ? buildTag(UrchinReportType.valueOf(json.get("type").getAsString()), json.get("reason").getAsString(), json.get("addedOn").getAsString())
+                    : createNoHitTag();
+            tag.announced.set(json.has("announced") && json.get("announced").getAsBoolean());
+            return tag;
+        }
+
         public boolean samePayload(CachedUrchinTag other) {
             if (other == null) {
                 return false;
@@ -0,0 +1,110 @@
+package tabstats.playerapi.api.games.bedwars;
+
+import com.google.gson.JsonObject;
+import tabstats.playerapi.api.games.bedwars.BedwarsUtil.CachedUrchinTag;
+import tabstats.playerapi.cache.JsonLinesStore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of Urchin answers by normalised identity. Tags and clean results are kept on disk
+ * next to config.json, announced flag included so a restart does not repeat the chat warning.
+ * Pending and failed lookups only live in memory, long enough to stop re-asking straight away.
+ */
+final class UrchinTagCache extends JsonLinesStore<String, UrchinTagCache.Entry> {
+    private static final String CACHE_FILENAME = "urchin.jsonl";
+    private static final int MAX_ENTRIES = 2000;
+    private static final long HIT_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+    private static final long NO_HIT_TTL_MILLIS = TimeUnit.HOURS.toMillis(2);
+    /* Also how long a row showing a pending tag waits before asking again */
+    static final long PENDING_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    UrchinTagCache() {
+        super(CACHE_FILENAME, MAX_ENTRIES);
+    }
+
+    /**
+     * @return The unexpired tag for the identity, or null if Urchin has to be asked
+     */
+    CachedUrchinTag getTag(String key) {
+        Entry entry = get(key);
+        return entry == null ? null : entry.tag;
+    }
+
+    /**
+     * Stores a fresh answer. If it says the same as the cached one the cached tag is kept, so its
+     * announced state carries over, and only its age is reset.
+     * @return The tag now cached for the identity
+     */
+    CachedUrchinTag store(String key, CachedUrchinTag tag) {
+        ensureLoaded();
+        synchronized (this) {
+            Entry existing = get(key);
+            if (existing != null && existing.tag.samePayload(tag)) {
+                tag = existing.tag;
+            }
+            put(key, new Entry(tag, System.currentTimeMillis()));
+            return tag;
+        }
+    }
+
+    /**
+     * Records that the identity's tag was announced, if it is still the cached one
+     */
+    void markAnnounced(String key, CachedUrchinTag tag) {
+        if (key == null || tag.isPending()) {
+            return;
+        }
+
+        ensureLoaded();
+        synchronized (this) {
+            Entry entry = get(key);
+            if (entry != null && entry.tag == tag) {
+                // Written again with the flag set, keeping its age
+                put(key, entry);
+            }
+        }
+    }
+
+    @Override
+    protected String readKey(JsonObject line) {
+        return line.get("identity").getAsString();
+    }
+
+    @Override
+    protected void writeKey(JsonObject line, String key) {
+        line.addProperty("identity", key);
+    }
+
+    @Override
+    protected Entry readValue(JsonObject line) {
+        return new Entry(CachedUrchinTag.fromJson(line.get("tag").getAsJsonObject()), line.get("storedAt").getAsLong());
+    }
+
+    @Override
+    protected void writeValue(JsonObject line, Entry entry) {
+        line.addProperty("storedAt", entry.storedAt);
+        line.add("tag", entry.tag.toJson());
+    }
+
+    @Override
+    protected boolean isExpired(Entry entry, long now) {
+        long ttl = entry.tag.isPending() ? PENDING_TTL_MILLIS : entry.tag.shouldAnnounce() ? HIT_TTL_MILLIS : NO_HIT_TTL_MILLIS;
+        return now - entry.storedAt > ttl;
+    }
+
+    @Override
+    protected boolean isPersistent(Entry entry) {
+        return !entry.tag.isPending();
+    }
+
+    static final class Entry {
+        private final CachedUrchinTag tag;
+        private final long storedAt;
+
+        private Entry(CachedUrchinTag tag, long storedAt) {
+            this.tag = tag;
+            this.storedAt = storedAt;
+        }
+    }
+}
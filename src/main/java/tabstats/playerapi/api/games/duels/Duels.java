@@ -1,53 +1,64 @@
 package tabstats.playerapi.api.games.duels;
 
 import tabstats.playerapi.api.games.HypixelGames;
-import tabstats.playerapi.api.stats.Stat;
-import tabstats.playerapi.api.stats.StatInt;
-import tabstats.playerapi.api.stats.StatString;
+import tabstats.playerapi.api.stats.StatColumns;
+import tabstats.playerapi.api.stats.StatRecord;
+import tabstats.playerapi.api.stats.StatSchema;
 import tabstats.playerapi.exception.GameNullException;
-import tabstats.util.ChatColor;
 import com.google.gson.JsonObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class Duels extends DuelsUtil {
-    public JsonObject duelJson;
-    private final JsonObject wholeObject;
-    private List<Stat> statList;
-    private final List<Stat> formattedStatList;
-    public Stat title, winstreak, bestWinstreak, wins, losses, kills;
+    /* Api name of the equipped title, the only text stat Duels keeps */
+    private static final String TITLE_FIELD = "active_cosmetictitle";
+    /* Api names of every whole number stat, including per-mode wins used by prestige titles */
+    private static final String[] INT_FIELDS = collectStatFields(
+            "current_winstreak", "best_overall_winstreak", "wins", "losses", "kills"
+    );
+    /* Api names of every stat read from the Duels section */
+    public static final String[] STAT_FIELDS = withTitle(INT_FIELDS);
+    private static final StatSchema SCHEMA = new StatSchema(INT_FIELDS, new String[]{TITLE_FIELD});
+    /* Slots into the record, mode wins follow KILLS and are looked up by api name */
+    public static final int WINSTREAK = 0, BEST_WINSTREAK = 1, WINS = 2, LOSSES = 3, KILLS = 4;
+    public static final int TITLE = 0;
+    private final StatRecord stats = SCHEMA.newRecord();
+    private StatColumns formattedStats = StatColumns.EMPTY;
 
     public Duels(String playerName, String playerUUID, JsonObject wholeObject) {
-        super(playerName, playerUUID);
-        this.wholeObject = wholeObject;
-        this.playerObject = wholeObject.get("player").getAsJsonObject();
-        this.statList = new ArrayList<>();
-        this.formattedStatList = new ArrayList<>();
-
-        if (setData(HypixelGames.DUELS)) {
-            this.statList = setStats(
-                    this.title = new StatString("Title", "active_cosmetictitle", this.duelJson),
-                    this.winstreak = new StatInt("Winstreak", "current_winstreak", this.duelJson),
-                    this.bestWinstreak = new StatInt("Best Winstreak", "best_overall_winstreak", this.duelJson),
-                    this.wins = new StatInt("Wins", "wins", this.duelJson),
-                    this.losses = new StatInt("Losses", "losses", this.duelJson),
-                    this.kills = new StatInt("Kills", "kills", this.duelJson));
+        super(playerName, playerUUID, wholeObject);
+
+        if (setData(wholeObject, HypixelGames.DUELS)) {
+            setFormattedStatList();
         }
     }
 
+    private static String[] collectStatFields(String... baseFields) {
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList(baseFields));
+        for (DuelsModes mode : DuelsModes.values()) {
+            fields.add(mode.getWinsJson());
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static String[] withTitle(String[] intFields) {
+        String[] fields = new String[intFields.length + 1];
+        fields[0] = TITLE_FIELD;
+        System.arraycopy(intFields, 0, fields, 1, intFields.length);
+        return fields;
+    }
+
     @Override
-    public boolean setData(HypixelGames game) {
+    public boolean setData(JsonObject wholeObject, HypixelGames game) {
         this.isNicked = false;
         this.hasPlayed = false;
 
         try {
-            if (!this.isNicked) {
-                this.hasPlayed = true;
-                this.duelJson = getGameData(wholeObject, game);
-                return true;
-            }
-            return false;
+            this.stats.readAll(getGameData(wholeObject, game));
+            this.hasPlayed = true;
+            return true;
         } catch (GameNullException ex) {
             return false;
         }
@@ -64,58 +75,45 @@ public class Duels extends DuelsUtil {
     }
 
     @Override
-    public List<Stat> getStatList() {
-        return this.statList;
+    public StatRecord getStatRecord() {
+        return this.stats;
     }
 
-
-    /* retrieves the formatted stat list */
+    /* If player has no stats, the columns are empty so they show only their name */
     @Override
-    public List<Stat> getFormattedStatList() {
-        List<Stat> statList = new ArrayList<>(this.formattedStatList);
-
-        // If player has no stats, return empty list so they show only their name
-        if (!this.hasPlayed || this.duelJson == null) {
-            return new ArrayList<>(); // Empty list = no stats displayed
-        }
-
-        // Safely build title row
-        try {
-            StatString title = new StatString("TITLE                      ");
-            String tVal = this.getFormattedTitle(this);
-            title.setValue(tVal == null ? "N/A" : tVal);
-            statList.add(0, title);
-        } catch (Exception ignored) { /* silent-fail */ }
-
-        return statList;
+    public StatColumns getStatColumns() {
+        return this.formattedStats;
     }
 
-    /* sets the formatted stat list when the player is first grabbed */
-    /* only set a single time */
+    /* builds the columns once when the player is first grabbed */
     @Override
     public void setFormattedStatList() {
-        StatString ws = new StatString("WS");
-        ws.setValue(this.getWSColor(((StatInt)this.winstreak).getValue()).toString() + ((StatInt)this.winstreak).getValue());
-        this.formattedStatList.add(ws);
-
-        StatString bws = new StatString("BWS");
-        bws.setValue(this.getWSColor(((StatInt)this.bestWinstreak).getValue()).toString() + ((StatInt)this.bestWinstreak).getValue());
-        this.formattedStatList.add(bws);
-
-        StatString ks = new StatString("KILLS");
-        ks.setValue(this.getKillsColor(((StatInt)this.kills).getValue()).toString() + ((StatInt)this.kills).getValue());
-        this.formattedStatList.add(ks);
-
-        StatString WLR = new StatString("WLR");
-        WLR.setValue(this.getWlrColor(this.getWlr(this)).toString() + this.getWlr(this));
-        this.formattedStatList.add(WLR);
+        if (!this.hasPlayed) {
+            this.formattedStats = StatColumns.EMPTY;
+            return;
+        }
 
-        StatString wins = new StatString("WINS");
-        wins.setValue(/* this sets the color >>*/ this.getWinsColor(((StatInt)this.wins).getValue()).toString() + /* this is what's actually displayed >>>*/ ((StatInt)this.wins).getValue());
-        this.formattedStatList.add(wins);
+        StatColumns.Builder columns = StatColumns.builder();
+        // Safely build title column
+        try {
+            String title = this.getFormattedTitle(this);
+            columns.add("TITLE                      ", title == null ? "N/A" : title);
+        } catch (Exception ignored) { /* silent-fail */ }
 
-        StatString losses = new StatString("LOSSES");
-        losses.setValue(this.getLossesColor(((StatInt)this.losses).getValue()).toString() + ((StatInt)this.losses).getValue());
-        this.formattedStatList.add(losses);
+        int winstreak = this.stats.getInt(WINSTREAK);
+        int bestWinstreak = this.stats.getInt(BEST_WINSTREAK);
+        int kills = this.stats.getInt(KILLS);
+        int wins = this.stats.getInt(WINS);
+        int losses = this.stats.getInt(LOSSES);
+        double wlr = this.getWlr(this);
+
+        this.formattedStats = columns
+                .add("WS", formatCount(this.getWSColor(winstreak), winstreak))
+                .add("BWS", formatCount(this.getWSColor(bestWinstreak), bestWinstreak))
+                .add("KILLS", formatCount(this.getKillsColor(kills), kills))
+                .add("WLR", formatRatio(this.getWlrColor(wlr), wins, losses))
+                .add("WINS", formatCount(this.getWinsColor(wins), wins))
+                .add("LOSSES", formatCount(this.getLossesColor(losses), losses))
+                .build();
     }
 }
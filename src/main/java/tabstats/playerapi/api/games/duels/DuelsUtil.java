@@ -1,90 +1,57 @@
 package tabstats.playerapi.api.games.duels;
 
+import tabstats.playerapi.api.games.ColorThresholds;
 import tabstats.playerapi.api.games.HGameBase;
-import tabstats.playerapi.api.stats.StatInt;
-import tabstats.playerapi.api.stats.StatString;
+import tabstats.playerapi.api.stats.StatRecord;
 import tabstats.util.ChatColor;
 import org.apache.commons.lang3.text.WordUtils;
+import com.google.gson.JsonObject;
 
 import java.util.Locale;
 
 public abstract class DuelsUtil extends HGameBase {
-    public DuelsUtil(String playerName, String playerUUID) {
-        super(playerName, playerUUID);
+    private static final ColorThresholds DUELS_WLR = ColorThresholds.get("duels.wlr");
+    private static final ColorThresholds DUELS_WINSTREAK = ColorThresholds.get("duels.winstreak");
+    private static final ColorThresholds DUELS_KILLS = ColorThresholds.get("duels.kills");
+    private static final ColorThresholds DUELS_WINS = ColorThresholds.get("duels.wins");
+    private static final ColorThresholds DUELS_LOSSES = ColorThresholds.get("duels.losses");
+
+    public DuelsUtil(String playerName, String playerUUID, JsonObject wholeObject) {
+        super(playerName, playerUUID, wholeObject);
     }
 
     public double getWlr(Duels duels) {
-        try {
-            if (duels == null || duels.wins == null || duels.losses == null) return 0D;
-            return this.formatDouble(((StatInt)duels.wins).getValue(), ((StatInt)duels.losses).getValue());
-        } catch (Exception ignored) {
-            return 0D;
-        }
+        if (duels == null) return 0D;
+        StatRecord stats = duels.getStatRecord();
+        return this.formatDouble(stats.getInt(Duels.WINS), stats.getInt(Duels.LOSSES));
     }
 
     public ChatColor getWlrColor(double wlr) {
-        if (wlr < 2) return ChatColor.GRAY;
-        if (wlr < 4) return ChatColor.WHITE;
-        if (wlr < 6) return ChatColor.GOLD;
-        if (wlr < 7) return ChatColor.DARK_GREEN;
-        if (wlr < 10) return ChatColor.RED;
-        if (wlr < 15) return ChatColor.DARK_RED;
-        if (wlr < 50) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return DUELS_WLR.colorOf(wlr);
     }
 
     public ChatColor getWSColor(int ws) {
-        if (ws < 50) return ChatColor.GRAY;
-        if (ws < 200) return ChatColor.WHITE;
-        if (ws < 350) return ChatColor.GOLD;
-        if (ws < 500) return ChatColor.DARK_GREEN;
-        if (ws < 650) return ChatColor.RED;
-        if (ws < 800) return ChatColor.DARK_RED;
-        if (ws < 1000) return ChatColor.LIGHT_PURPLE;
-        return ChatColor.DARK_PURPLE;
+        return DUELS_WINSTREAK.colorOf(ws);
     }
 
     public ChatColor getKillsColor(int kills) {
-        if (kills >= 200000) return ChatColor.GOLD;
-        if (kills >= 100000) return ChatColor.LIGHT_PURPLE;
-        if (kills >= 50000) return ChatColor.AQUA;
-        if (kills >= 20000) return ChatColor.DARK_PURPLE;
-        if (kills >= 10000) return ChatColor.YELLOW;
-        if (kills >= 4000) return ChatColor.DARK_RED;
-        if (kills >= 2000) return ChatColor.DARK_GREEN;
-        if (kills >= 1000) return ChatColor.DARK_AQUA;
-        if (kills >= 500) return ChatColor.GOLD;
-        if (kills >= 200) return ChatColor.WHITE;
-        return ChatColor.GRAY;
+        return DUELS_KILLS.colorOf(kills);
     }
 
     public ChatColor getWinsColor(int wins) {
-        if (wins >= 200000) return ChatColor.GOLD;
-        if (wins >= 100000) return ChatColor.LIGHT_PURPLE;
-        if (wins >= 50000) return ChatColor.AQUA;
-        if (wins >= 20000) return ChatColor.DARK_PURPLE;
-        if (wins >= 10000) return ChatColor.YELLOW;
-        if (wins >= 4000) return ChatColor.DARK_RED;
-        if (wins >= 2000) return ChatColor.DARK_GREEN;
-        if (wins >= 1000) return ChatColor.DARK_AQUA;
-        if (wins >= 500) return ChatColor.GOLD;
-        if (wins >= 200) return ChatColor.WHITE;
-        return ChatColor.GRAY;
+        return DUELS_WINS.colorOf(wins);
     }
 
     public ChatColor getLossesColor(int losses) {
-        if (losses < 50) return ChatColor.DARK_PURPLE;
-        if (losses < 75) return ChatColor.LIGHT_PURPLE;
-        if (losses < 100) return ChatColor.DARK_RED;
-        if (losses < 150) return ChatColor.RED;
-        if (losses < 200) return ChatColor.DARK_GREEN;
-        if (losses < 250) return ChatColor.GOLD;
-        if (losses < 300) return ChatColor.WHITE;
-        return ChatColor.GRAY;
+        return DUELS_LOSSES.colorOf(losses);
     }
 
     public String getFormattedTitle(Duels duels) {
-        String title = ((StatString)duels.title).getValue();
+        StatRecord stats = duels.getStatRecord();
+        String title = stats.getString(Duels.TITLE);
+        if (title == null) {
+            title = "";
+        }
         String formattedTitle = title.replace("_", " ").replace("cosmetictitle", "");
 
         if (this.isPrestigeTitle(title)) {
@@ -108,13 +75,9 @@ public abstract class DuelsUtil extends HGameBase {
                 DuelsModes duelMode = DuelsModes.valueOf(modeName.toUpperCase(Locale.ROOT));
                 String gamemodeName = duelMode.getName();
 
-                // Safely pull wins json; if absent, fall back to formatted title
-                int gamemodeWins = 0;
-                try {
-                    if (duels.duelJson != null && duels.duelJson.has(duelMode.getWinsJson()) && !duels.duelJson.get(duelMode.getWinsJson()).isJsonNull()) {
-                        gamemodeWins = duels.duelJson.get(duelMode.getWinsJson()).getAsInt();
-                    }
-                } catch (Exception ignored) { gamemodeWins = 0; }
+                // Mode wins missing from the response read as 0, which falls back to the formatted title
+                int winsSlot = stats.getSchema().intSlot(duelMode.getWinsJson());
+                int gamemodeWins = winsSlot < 0 ? 0 : stats.getInt(winsSlot);
 
                 int multiplier = title.toLowerCase(Locale.ROOT).contains("all modes") ? 2 : 1;
 
@@ -2,49 +2,40 @@ package tabstats.playerapi.api.games.skywars;
 
 import com.google.gson.JsonObject;
 import tabstats.playerapi.api.games.HypixelGames;
-import tabstats.playerapi.api.stats.Stat;
-import tabstats.playerapi.api.stats.StatInt;
-import tabstats.playerapi.api.stats.StatString;
+import tabstats.playerapi.api.stats.StatColumns;
+import tabstats.playerapi.api.stats.StatRecord;
+import tabstats.playerapi.api.stats.StatSchema;
 import tabstats.playerapi.exception.GameNullException;
 import tabstats.util.ChatColor;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Skywars extends SkywarsUtil {
-    public JsonObject skywarsJson;
-    private final JsonObject wholeObject;
-    private List<Stat> statList;
-    public Stat wins, losses, kills, deaths;
+    /* Api names of every stat read from the SkyWars section, the star is Hypixel's preformatted level string */
+    public static final String[] STAT_FIELDS = {"wins", "losses", "kills", "deaths", "levelFormattedWithBrackets"};
+    private static final StatSchema SCHEMA = new StatSchema(
+            new String[]{"wins", "losses", "kills", "deaths"}, new String[]{"levelFormattedWithBrackets"});
+    /* Slots into the record */
+    public static final int WINS = 0, LOSSES = 1, KILLS = 2, DEATHS = 3;
+    public static final int LEVEL_FORMATTED = 0;
+    private final StatRecord stats = SCHEMA.newRecord();
+    private StatColumns formattedStats = StatColumns.EMPTY;
 
     public Skywars(String playerName, String playerUUID, JsonObject wholeObject) {
-        super(playerName, playerUUID);
-        this.wholeObject = wholeObject;
-        this.playerObject = wholeObject.get("player").getAsJsonObject();
-        this.statList = new ArrayList<>();
+        super(playerName, playerUUID, wholeObject);
 
-        if (setData(HypixelGames.SKYWARS)) {
-            this.statList = setStats(
-                    this.wins = new StatInt("Wins", "wins", this.skywarsJson),
-                    this.losses = new StatInt("Losses", "losses", this.skywarsJson),
-                    this.kills = new StatInt("Kills", "kills", this.skywarsJson),
-                    this.deaths = new StatInt("Deaths", "deaths", this.skywarsJson)
-            );
+        if (setData(wholeObject, HypixelGames.SKYWARS)) {
+            setFormattedStatList();
         }
     }
 
     @Override
-    public boolean setData(HypixelGames game) {
+    public boolean setData(JsonObject wholeObject, HypixelGames game) {
         this.isNicked = false;
         this.hasPlayed = false;
 
         try {
-            if (!this.isNicked) {
-                this.hasPlayed = true;
-                this.skywarsJson = getGameData(wholeObject, game);
-                return true;
-            }
-            return false;
+            this.stats.readAll(getGameData(wholeObject, game));
+            this.hasPlayed = true;
+            return true;
         } catch (GameNullException ex) {
             return false;
         }
@@ -61,70 +52,45 @@ public class Skywars extends SkywarsUtil {
     }
 
     @Override
-    public List<Stat> getStatList() {
-        return this.statList;
+    public StatRecord getStatRecord() {
+        return this.stats;
     }
 
+    /* If player has no stats, the columns are empty so they show only their name */
     @Override
-    public List<Stat> getFormattedStatList() {
-        List<Stat> list = new ArrayList<>();
-
-        // If player has no stats, return empty list so they show only their name
-        if (!this.hasPlayed || this.skywarsJson == null) {
-            return new ArrayList<>(); // Empty list = no stats displayed
-        }
-
-        // STAR
-        StatString star = new StatString("STAR");
-        star.setValue(buildStarDisplay());
-        list.add(0, star);
-
-        // KDR
-        StatString kdr = new StatString("KDR");
-        double kdrVal = this.getKdr(this);
-        kdr.setValue(this.getKdrColor(kdrVal).toString() + kdrVal);
-        list.add(kdr);
-
-        // KILLS
-        StatString kills = new StatString("KILLS");
-        int killsVal = 0;
-        try { if (this.kills != null) killsVal = ((StatInt) this.kills).getValue(); } catch (Exception ignored) {}
-        kills.setValue(this.getKillsColor(killsVal).toString() + killsVal);
-        list.add(kills);
-
-        // WLR
-        StatString wlr = new StatString("WLR");
-        double wlrVal = this.getWlr(this);
-        wlr.setValue(this.getWlrColor(wlrVal).toString() + wlrVal);
-        list.add(wlr);
-
-        // WINS
-        StatString wins = new StatString("WINS");
-        int winsVal = 0;
-        try { if (this.wins != null) winsVal = ((StatInt) this.wins).getValue(); } catch (Exception ignored) {}
-        wins.setValue(this.getWinsColor(winsVal).toString() + winsVal);
-        list.add(wins);
-
-        return list;
+    public StatColumns getStatColumns() {
+        return this.formattedStats;
     }
 
+    /* builds the columns once when the player is first grabbed */
     @Override
     public void setFormattedStatList() {
-        // no-op; we assemble in getFormattedStatList for consistency
+        if (!this.hasPlayed) {
+            this.formattedStats = StatColumns.EMPTY;
+            return;
+        }
+
+        int kills = this.stats.getInt(KILLS);
+        int wins = this.stats.getInt(WINS);
+        double kdr = this.getKdr(this);
+        double wlr = this.getWlr(this);
+
+        this.formattedStats = StatColumns.builder()
+                .add("STAR", buildStarDisplay())
+                .add("KDR", formatRatio(this.getKdrColor(kdr), kills, this.stats.getInt(DEATHS)))
+                .add("KILLS", formatCount(this.getKillsColor(kills), kills))
+                .add("WLR", formatRatio(this.getWlrColor(wlr), wins, this.stats.getInt(LOSSES)))
+                .add("WINS", formatCount(this.getWinsColor(wins), wins))
+                .build();
     }
 
     private String buildStarDisplay() {
         // Only use Hypixel's preformatted string; strip brackets so only number + glyph remain
-        try {
-            if (this.playerObject.has("stats") && this.playerObject.getAsJsonObject("stats").has("SkyWars")) {
-                JsonObject sw = this.playerObject.getAsJsonObject("stats").getAsJsonObject("SkyWars");
-                if (sw.has("levelFormattedWithBrackets")) {
-                    String s = sw.get("levelFormattedWithBrackets").getAsString();
-                    // Remove literal square brackets, keep colors and any glyphs
-                    return s.replace("[", "").replace("]", "");
-                }
-            }
-        } catch (Exception ignored) { /* silent-fail */ }
+        String level = this.stats.getString(LEVEL_FORMATTED);
+        if (level != null) {
+            // Remove literal square brackets, keep colors and any glyphs
+            return level.replace("[", "").replace("]", "");
+        }
         // If the API doesn't provide it, show a simple placeholder
         return ChatColor.GRAY + "-";
     }
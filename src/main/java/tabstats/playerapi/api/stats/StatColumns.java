@@ -0,0 +1,107 @@
+package tabstats.playerapi.api.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The formatted columns a game shows in the tab list: a title and a colour coded value per column.
+ * Never changed after it is built; a game swaps in a new instance when a value changes.
+ * Values are interned, most players in a lobby share the same handful of small numbers per column.
+ */
+public final class StatColumns {
+    public static final StatColumns EMPTY = new StatColumns(new String[0], new String[0]);
+    /* Bounds the intern table, past this values are simply kept as they are */
+    private static final int MAX_INTERNED_VALUES = 4096;
+    private static final ConcurrentHashMap<String, String> INTERNED_VALUES = new ConcurrentHashMap<>();
+
+    private final String[] titles;
+    private final String[] values;
+
+    private StatColumns(String[] titles, String[] values) {
+        this.titles = titles;
+        this.values = values;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return this.titles.length;
+    }
+
+    public boolean isEmpty() {
+        return this.titles.length == 0;
+    }
+
+    public String getTitle(int index) {
+        return this.titles[index];
+    }
+
+    public String getValue(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * @return Index of the column with this title, or -1
+     */
+    public int indexOf(String title) {
+        for (int i = 0; i < this.titles.length; i++) {
+            if (this.titles[i].equals(title)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Copy of these columns with one value replaced
+     */
+    public StatColumns withValue(int index, String value) {
+        String[] copy = this.values.clone();
+        copy[index] = intern(value);
+        return new StatColumns(this.titles, copy);
+    }
+
+    private static String intern(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        String interned = INTERNED_VALUES.get(value);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED_VALUES.size() >= MAX_INTERNED_VALUES) {
+            return value;
+        }
+
+        interned = INTERNED_VALUES.putIfAbsent(value, value);
+        return interned == null ? value : interned;
+    }
+
+    public static final class Builder {
+        private final List<String> titles = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param title Column header, callers pass constants so every player shares the same title strings
+         */
+        public Builder add(String title, String value) {
+            this.titles.add(title);
+            this.values.add(intern(value));
+            return this;
+        }
+
+        public StatColumns build() {
+            if (this.titles.isEmpty()) {
+                return EMPTY;
+            }
+            return new StatColumns(this.titles.toArray(new String[0]), this.values.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package tabstats.playerapi.api.stats;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * One player's raw stats for one game, held in primitive slots described by a {@link StatSchema}.
+ * Values are copied out of the API response once, so nothing here refers back to the JSON.
+ */
+public final class StatRecord {
+    private final StatSchema schema;
+    private final int[] ints;
+    /* bit n is set when int slot n held a whole number in the response */
+    private long loaded;
+    private final String[] strings;
+
+    StatRecord(StatSchema schema) {
+        this.schema = schema;
+        this.ints = new int[schema.getIntCount()];
+        this.strings = new String[schema.getStringCount()];
+    }
+
+    public StatSchema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Reads an int slot from the object holding it. A missing or non-numeric value reads as 0 and is not marked loaded.
+     */
+    public void readInt(int slot, JsonObject source) {
+        try {
+            this.ints[slot] = Integer.parseInt(source.get(this.schema.getIntField(slot)).getAsString());
+            this.loaded |= 1L << slot;
+        } catch (Exception ex) {
+            this.ints[slot] = 0;
+            this.loaded &= ~(1L << slot);
+        }
+    }
+
+    /**
+     * Reads a string slot from the object holding it, a missing value stays null
+     */
+    public void readString(int slot, JsonObject source) {
+        try {
+            JsonElement element = source.get(this.schema.getStringField(slot));
+            this.strings[slot] = element == null || element.isJsonNull() ? null : element.getAsString();
+        } catch (Exception ex) {
+            this.strings[slot] = null;
+        }
+    }
+
+    /**
+     * Reads every slot from one object, for games whose stats all live in the same section
+     */
+    public void readAll(JsonObject source) {
+        for (int slot = 0; slot < this.ints.length; slot++) {
+            readInt(slot, source);
+        }
+        for (int slot = 0; slot < this.strings.length; slot++) {
+            readString(slot, source);
+        }
+    }
+
+    public int getInt(int slot) {
+        return this.ints[slot];
+    }
+
+    /**
+     * @return Whether the response actually contained this stat, as opposed to it defaulting to 0
+     */
+    public boolean isLoaded(int slot) {
+        return (this.loaded & (1L << slot)) != 0L;
+    }
+
+    /**
+     * @return The value, or null when the response did not have it
+     */
+    public String getString(int slot) {
+        return this.strings[slot];
+    }
+}
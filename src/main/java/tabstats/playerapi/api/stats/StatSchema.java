@@ -0,0 +1,58 @@
+package tabstats.playerapi.api.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Names the slots of a game's {@link StatRecord}: every int and string stat gets a fixed index,
+ * so records only hold the values and share the field names through their schema.
+ */
+public final class StatSchema {
+    private final String[] intFields;
+    private final String[] stringFields;
+    private final Map<String, Integer> intSlots = new HashMap<>();
+
+    /**
+     * @param intFields Api names of the whole number stats, slot n reads intFields[n]
+     * @param stringFields Api names of the text stats, slot n reads stringFields[n]
+     */
+    public StatSchema(String[] intFields, String[] stringFields) {
+        if (intFields.length > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " int stats per game");
+        }
+
+        this.intFields = intFields.clone();
+        this.stringFields = stringFields.clone();
+        for (int slot = 0; slot < this.intFields.length; slot++) {
+            this.intSlots.putIfAbsent(this.intFields[slot], slot);
+        }
+    }
+
+    public StatRecord newRecord() {
+        return new StatRecord(this);
+    }
+
+    public int getIntCount() {
+        return this.intFields.length;
+    }
+
+    public int getStringCount() {
+        return this.stringFields.length;
+    }
+
+    public String getIntField(int slot) {
+        return this.intFields[slot];
+    }
+
+    public String getStringField(int slot) {
+        return this.stringFields[slot];
+    }
+
+    /**
+     * @return Slot of the int stat with this api name, or -1 if the game does not keep it
+     */
+    public int intSlot(String jsonName) {
+        Integer slot = this.intSlots.get(jsonName);
+        return slot == null ? -1 : slot;
+    }
+}
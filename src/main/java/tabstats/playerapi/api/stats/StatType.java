@@ -1,6 +0,0 @@
-package tabstats.playerapi.api.stats;
-
-public enum StatType {
-    INT, DOUBLE, STRING
-}
-
@@ -0,0 +1,108 @@
+package tabstats.playerapi.cache;
+
+import tabstats.playerapi.HPlayer;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Name aliases kept in both directions: every normalised alias points at one player and the UUID it
+ * was looked up under, and every player keeps the set of aliases pointing at it, so dropping a
+ * player's aliases touches only those instead of scanning them all. Players are tracked by identity
+ * since a placeholder and the cached player it may replace share a UUID but not their aliases.
+ */
+public class AliasIndex {
+    /* Read without locking on every tab row */
+    private final Map<String, Alias> aliases = new ConcurrentHashMap<>();
+    /* Guarded by this, both directions only change together */
+    private final Map<HPlayer, Set<String>> keysByPlayer = new IdentityHashMap<>();
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * @param key Normalised name, see {@link tabstats.util.NameKey}
+     * @return The alias, or null if nobody goes by that name
+     */
+    public Alias get(String key) {
+        return key == null ? null : this.aliases.get(key);
+    }
+
+    /**
+     * Points the alias at the player, taking it away from whoever held it before
+     * @return Whether the alias changed hands
+     */
+    public synchronized boolean put(String key, UUID uuid, HPlayer player) {
+        Alias previous = this.aliases.get(key);
+        if (previous != null && previous.player == player) {
+            return false;
+        }
+
+        if (previous != null) {
+            Set<String> previousKeys = this.keysByPlayer.get(previous.player);
+            if (previousKeys != null && previousKeys.remove(key) && previousKeys.isEmpty()) {
+                this.keysByPlayer.remove(previous.player);
+            }
+        }
+
+        this.aliases.put(key, new Alias(uuid, player));
+        this.keysByPlayer.computeIfAbsent(player, p -> new HashSet<>(4)).add(key);
+        this.version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Drops every alias pointing at the player, in time proportional to how many it has
+     * @return Whether the player had any
+     */
+    public synchronized boolean removeAll(HPlayer player) {
+        Set<String> keys = this.keysByPlayer.remove(player);
+        if (keys == null) {
+            return false;
+        }
+
+        for (String key : keys) {
+            this.aliases.remove(key);
+        }
+        this.version.incrementAndGet();
+        return true;
+    }
+
+    public synchronized void clear() {
+        this.aliases.clear();
+        this.keysByPlayer.clear();
+        this.version.incrementAndGet();
+    }
+
+    public int size() {
+        return this.aliases.size();
+    }
+
+    /**
+     * @return Counter that changes whenever an alias is added, moved or removed
+     */
+    public int getVersion() {
+        return this.version.get();
+    }
+
+    public static final class Alias {
+        private final UUID uuid;
+        private final HPlayer player;
+
+        private Alias(UUID uuid, HPlayer player) {
+            this.uuid = uuid;
+            this.player = player;
+        }
+
+        public UUID getUuid() {
+            return this.uuid;
+        }
+
+        public HPlayer getPlayer() {
+            return this.player;
+        }
+    }
+}
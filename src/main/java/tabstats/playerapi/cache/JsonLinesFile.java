@@ -0,0 +1,229 @@
+package tabstats.playerapi.cache;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import tabstats.config.ModConfig;
+import tabstats.util.Handler;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * One JSON object per line in a file next to config.json, the storage behind the on-disk caches.
+ * Changes are appended as they happen and the owner rewrites the file with only its live entries
+ * once enough superseded lines have piled up. Both are only buffered here and written shortly after
+ * from the io lane, so owners can call in under their own lock without waiting on the disk.
+ */
+public class JsonLinesFile {
+    /* Lines arriving within this window go out in one write */
+    private static final long FLUSH_DELAY_MILLIS = 500L;
+    /* Files with buffered lines, written out on shutdown so the last half second is not lost */
+    private static final Set<JsonLinesFile> UNFLUSHED = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (JsonLinesFile file : UNFLUSHED) {
+                file.flush();
+            }
+        }, "TabStats-cache-flush"));
+    }
+
+    private final String filename;
+    /* Held while touching the file itself, so a flush never interleaves with another flush or a read */
+    private final Object ioLock = new Object();
+    private File file;
+    private Writer appender;
+    /* All guarded by this */
+    private List<String> pendingLines = new ArrayList<>();
+    private List<String> pendingRewrite;
+    /* Number of pendingLines already covered by pendingRewrite */
+    private int rewrittenLines;
+    private boolean flushScheduled;
+
+    /**
+     * @param filename Name of the file inside the config directory
+     */
+    public JsonLinesFile(String filename) {
+        this.filename = filename;
+    }
+
+    /**
+     * Hands every readable line to the reader, skipping torn or hand-edited ones
+     * @return Number of non-empty lines in the file, 0 if it does not exist or cannot be read
+     */
+    public int read(Consumer<JsonObject> reader) {
+        synchronized (this.ioLock) {
+            File file = getFile();
+            if (!file.exists()) {
+                return 0;
+            }
+
+            int lines = 0;
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                JsonParser parser = new JsonParser();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    lines++;
+                    try {
+                        reader.accept(parser.parse(line).getAsJsonObject());
+                    } catch (RuntimeException ignored) {
+                        // Skip torn or hand-edited lines
+                    }
+                }
+            } catch (IOException ignored) {
+                // Unreadable file behaves like an empty one
+            }
+            return lines;
+        }
+    }
+
+    public synchronized void append(JsonObject line) {
+        this.pendingLines.add(line.toString());
+        scheduleFlush();
+    }
+
+    /**
+     * Replaces the file with exactly these lines, superseding everything appended so far.
+     * If the replacement cannot be written the old file and those appends are kept instead.
+     */
+    public synchronized void rewrite(Iterable<JsonObject> lines) {
+        List<String> rewrite = new ArrayList<>();
+        for (JsonObject line : lines) {
+            rewrite.add(line.toString());
+        }
+        this.pendingRewrite = rewrite;
+        this.rewrittenLines = this.pendingLines.size();
+        scheduleFlush();
+    }
+
+    /* must hold this */
+    private void scheduleFlush() {
+        if (this.flushScheduled) {
+            return;
+        }
+        this.flushScheduled = true;
+        UNFLUSHED.add(this);
+        Handler.schedule(this::submitFlush, FLUSH_DELAY_MILLIS);
+    }
+
+    /* runs on the scheduler thread, the write itself goes to the io lane */
+    private void submitFlush() {
+        if (!Handler.io().execute(this::flush)) {
+            // No room on the io lane right now, try again after another window
+            Handler.schedule(this::submitFlush, FLUSH_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Writes out whatever is buffered
+     */
+    public void flush() {
+        synchronized (this.ioLock) {
+            List<String> rewrite;
+            List<String> lines;
+            int rewritten;
+            synchronized (this) {
+                rewrite = this.pendingRewrite;
+                lines = this.pendingLines;
+                rewritten = this.rewrittenLines;
+                this.pendingRewrite = null;
+                this.pendingLines = new ArrayList<>();
+                this.rewrittenLines = 0;
+                this.flushScheduled = false;
+                UNFLUSHED.remove(this);
+            }
+
+            if (rewrite != null && writeReplacement(rewrite)) {
+                lines = lines.subList(rewritten, lines.size());
+            }
+            writeLines(lines);
+        }
+    }
+
+    /* must hold ioLock */
+    private void writeLines(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (this.appender == null) {
+                this.appender = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(getFile(), true), StandardCharsets.UTF_8));
+            }
+            for (String line : lines) {
+                this.appender.write(line);
+                this.appender.write('\n');
+            }
+            this.appender.flush();
+        } catch (IOException ex) {
+            closeAppender();
+        }
+    }
+
+    /**
+     * Writes the lines to a temporary file and moves it over the real one in a single step,
+     * so a crash part way leaves either the old file or the new one, never neither
+     * @return Whether the file was replaced. Must hold ioLock.
+     */
+    private boolean writeReplacement(List<String> lines) {
+        closeAppender();
+
+        File file = getFile();
+        File temp = new File(file.getParentFile(), this.filename + ".tmp");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException ex) {
+            temp.delete();
+            return false;
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | UnsupportedOperationException ex) {
+            temp.delete();
+            return false;
+        }
+    }
+
+    private void closeAppender() {
+        if (this.appender == null) {
+            return;
+        }
+
+        try {
+            this.appender.close();
+        } catch (IOException ignored) {
+        }
+        this.appender = null;
+    }
+
+    private File getFile() {
+        if (this.file == null) {
+            this.file = new File(ModConfig.getInstance().getFile().getParentFile(), this.filename);
+        }
+        return this.file;
+    }
+}
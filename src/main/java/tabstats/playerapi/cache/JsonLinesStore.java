@@ -0,0 +1,208 @@
+package tabstats.playerapi.cache;
+
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded map of entries kept in a {@link JsonLinesFile}, the common part of the on-disk caches.
+ * Stores append the entry and removals append a removed line. Once full, the oldest tenth is dropped
+ * the same way, and the file is only rewritten on load or once enough superseded lines have piled up.
+ * Subclasses decide how keys and values look on a line and when a value has expired. The monitor is
+ * never held for disk I/O: the file is read before taking it and written from the io lane.
+ */
+public abstract class JsonLinesStore<K, V> {
+    private final int maxEntries;
+    /* Trimming goes this far below the limit so a full store is not trimmed again on every put */
+    private final int trimmedEntries;
+    /* Insertion order, entries are moved to the back whenever they are stored again so the front is the oldest */
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>();
+    private final JsonLinesFile file;
+    /* Held for the first read only, so the monitor stays free while the file is read */
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+    private int staleLines;
+
+    /**
+     * @param filename Name of the file inside the config directory
+     * @param maxEntries Most entries kept in memory and on disk
+     */
+    protected JsonLinesStore(String filename, int maxEntries) {
+        this.file = new JsonLinesFile(filename);
+        this.maxEntries = maxEntries;
+        this.trimmedEntries = maxEntries * 9 / 10;
+    }
+
+    /**
+     * Reads the file if it has not been read yet. Safe to call from any thread, the first
+     * caller pays for the read and everyone else waits for it.
+     */
+    public void ensureLoaded() {
+        if (this.loaded) {
+            return;
+        }
+
+        synchronized (this.loadLock) {
+            if (this.loaded) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            LinkedHashMap<K, V> read = new LinkedHashMap<>();
+            int lines = this.file.read(line -> readLine(read, line, now));
+
+            synchronized (this) {
+                // Nothing is stored before the load completes, every writer waits for it first
+                this.entries.putAll(read);
+                if (this.entries.size() > this.maxEntries) {
+                    // Compacted right below, no need to record what was dropped
+                    removeOldest(this.entries.size() - this.trimmedEntries);
+                }
+                if (lines > this.entries.size()) {
+                    compact();
+                }
+                this.loaded = true;
+            }
+        }
+    }
+
+    /**
+     * @return The unexpired value stored for the key, or null if there is none
+     */
+    public V get(K key) {
+        ensureLoaded();
+        synchronized (this) {
+            V value = this.entries.get(key);
+            if (value == null) {
+                return null;
+            }
+            if (isExpired(value, System.currentTimeMillis())) {
+                // Dropped from the file at the next load or compaction
+                this.entries.remove(key);
+                this.staleLines++;
+                return null;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Stores the value as the newest entry, or appends it again if it is already stored so a
+     * change made to it in place reaches the file
+     */
+    protected void put(K key, V value) {
+        ensureLoaded();
+        synchronized (this) {
+            if (this.entries.remove(key) != null) {
+                this.staleLines++;
+            }
+            this.entries.put(key, value);
+            if (isPersistent(value)) {
+                this.file.append(toLine(key, value));
+            }
+
+            if (this.entries.size() > this.maxEntries) {
+                for (K removed : removeOldest(this.entries.size() - this.trimmedEntries)) {
+                    this.file.append(toRemovedLine(removed));
+                }
+            }
+            if (this.staleLines > this.maxEntries) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * @return Whether anything was stored for the key
+     */
+    protected boolean remove(K key) {
+        ensureLoaded();
+        synchronized (this) {
+            if (this.entries.remove(key) == null) {
+                return false;
+            }
+
+            this.file.append(toRemovedLine(key));
+            this.staleLines += 2;
+            return true;
+        }
+    }
+
+    protected abstract K readKey(JsonObject line);
+
+    protected abstract void writeKey(JsonObject line, K key);
+
+    /**
+     * @return The value on the line, or null if it is unusable
+     */
+    protected abstract V readValue(JsonObject line);
+
+    protected abstract void writeValue(JsonObject line, V value);
+
+    protected abstract boolean isExpired(V value, long now);
+
+    /**
+     * @return Whether the value is written to the file, false for values that only live in memory
+     */
+    protected boolean isPersistent(V value) {
+        return true;
+    }
+
+    private void readLine(Map<K, V> read, JsonObject line, long now) {
+        K key = readKey(line);
+        read.remove(key);
+        if (line.has("removed")) {
+            return;
+        }
+
+        V value = readValue(line);
+        if (value != null && !isExpired(value, now)) {
+            read.put(key, value);
+        }
+    }
+
+    /**
+     * Drops the oldest entries, each leaving its own line and the removal line behind as stale
+     * @return The keys dropped
+     */
+    private List<K> removeOldest(int count) {
+        List<K> removed = new ArrayList<>(count);
+        Iterator<K> oldestFirst = this.entries.keySet().iterator();
+        while (removed.size() < count && oldestFirst.hasNext()) {
+            removed.add(oldestFirst.next());
+            oldestFirst.remove();
+        }
+        this.staleLines += removed.size() * 2;
+        return removed;
+    }
+
+    /* rewrites the file with only the live entries */
+    private void compact() {
+        List<JsonObject> lines = new ArrayList<>(this.entries.size());
+        for (Map.Entry<K, V> entry : this.entries.entrySet()) {
+            if (isPersistent(entry.getValue())) {
+                lines.add(toLine(entry.getKey(), entry.getValue()));
+            }
+        }
+        this.file.rewrite(lines);
+        this.staleLines = 0;
+    }
+
+    private JsonObject toRemovedLine(K key) {
+        JsonObject line = new JsonObject();
+        writeKey(line, key);
+        line.addProperty("removed", true);
+        return line;
+    }
+
+    private JsonObject toLine(K key, V value) {
+        JsonObject line = new JsonObject();
+        writeKey(line, key);
+        writeValue(line, value);
+        return line;
+    }
+}
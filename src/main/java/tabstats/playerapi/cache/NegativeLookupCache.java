@@ -0,0 +1,102 @@
+package tabstats.playerapi.cache;
+
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent record of UUIDs Hypixel has no profile for, so lobby bots and NPCs are not looked up
+ * again on every lobby change or launch. Stored next to config.json through a {@link JsonLinesStore}
+ * like {@link PlayerStatCache}, each entry expiring after a TTL that depends on its kind.
+ */
+public class NegativeLookupCache extends JsonLinesStore<UUID, NegativeLookupCache.Entry> {
+    private static final String CACHE_FILENAME = "missing.jsonl";
+    private static final int MAX_ENTRIES = 5000;
+
+    public enum Kind {
+        /* A real account UUID that still had no profile after about 30 seconds of retries */
+        NO_PROFILE(TimeUnit.HOURS.toMillis(6)),
+        /* Version 2 UUIDs without a profile, the server side NPCs and lobby bots */
+        BOT(TimeUnit.DAYS.toMillis(1));
+
+        private final long ttlMillis;
+
+        Kind(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+    }
+
+    public NegativeLookupCache() {
+        super(CACHE_FILENAME, MAX_ENTRIES);
+    }
+
+    /**
+     * @return What the player is known as, or null if nothing unexpired is recorded
+     */
+    public Kind getKind(UUID uuid) {
+        Entry entry = get(uuid);
+        return entry == null ? null : entry.kind;
+    }
+
+    public void store(UUID uuid, Kind kind) {
+        if (uuid == null || kind == null) {
+            return;
+        }
+
+        put(uuid, new Entry(kind, System.currentTimeMillis()));
+    }
+
+    public void invalidate(UUID uuid) {
+        if (uuid == null) {
+            return;
+        }
+
+        remove(uuid);
+    }
+
+    @Override
+    protected UUID readKey(JsonObject line) {
+        return UUID.fromString(line.get("uuid").getAsString());
+    }
+
+    @Override
+    protected void writeKey(JsonObject line, UUID uuid) {
+        line.addProperty("uuid", uuid.toString());
+    }
+
+    @Override
+    protected Entry readValue(JsonObject line) {
+        return new Entry(Kind.valueOf(line.get("kind").getAsString().toUpperCase(Locale.ROOT)), line.get("recordedAt").getAsLong());
+    }
+
+    @Override
+    protected void writeValue(JsonObject line, Entry entry) {
+        line.addProperty("kind", entry.kind.name().toLowerCase(Locale.ROOT));
+        line.addProperty("recordedAt", entry.recordedAt);
+    }
+
+    @Override
+    protected boolean isExpired(Entry entry, long now) {
+        return now - entry.recordedAt > entry.kind.ttlMillis;
+    }
+
+    public static final class Entry {
+        private final Kind kind;
+        private final long recordedAt;
+
+        private Entry(Kind kind, long recordedAt) {
+            this.kind = kind;
+            this.recordedAt = recordedAt;
+        }
+
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        public long getRecordedAt() {
+            return this.recordedAt;
+        }
+    }
+}
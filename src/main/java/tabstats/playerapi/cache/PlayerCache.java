@@ -0,0 +1,247 @@
+package tabstats.playerapi.cache;
+
+import tabstats.playerapi.HPlayer;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory cache of resolved players. Entries are kept in access order so the least recently
+ * rendered or looked up player is evicted first, and each entry expires after a TTL that depends on
+ * what kind of result it holds. Every removal other than an explicit {@link #clear()} is reported to
+ * the eviction listener so dependent indexes (name aliases, tracking sets) can be cleaned up with it.
+ */
+public class PlayerCache {
+    private static final long FULL_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long NICKED_TTL_MILLIS = TimeUnit.MINUTES.toMillis(60);
+    /* Players whose lookup gave up without data are retried fairly quickly */
+    private static final long NO_DATA_TTL_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Predicate<UUID> pinned;
+    private final BiConsumer<UUID, HPlayer> evictionListener;
+    private volatile int maxSize;
+    /* Incremented on every change to the cached set so renderers can tell when to refresh */
+    private volatile int version;
+
+    /**
+     * @param maxSize Maximum number of players to hold
+     * @param pinned Players for which this returns true are skipped by size eviction (e.g. players currently in the world)
+     * @param evictionListener Notified, outside of the cache lock, for every evicted or expired player
+     */
+    public PlayerCache(int maxSize, Predicate<UUID> pinned, BiConsumer<UUID, HPlayer> evictionListener) {
+        this.maxSize = Math.max(1, maxSize);
+        this.pinned = pinned;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * @return The cached player, marking it as recently used, or null if absent or expired
+     */
+    public HPlayer get(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+
+        HPlayer expired;
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(uuid);
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.isExpired(System.currentTimeMillis())) {
+                return entry.player;
+            }
+
+            this.entries.remove(uuid);
+            this.version++;
+            expired = entry.player;
+        }
+
+        this.evictionListener.accept(uuid, expired);
+        return null;
+    }
+
+    public boolean contains(UUID uuid) {
+        return get(uuid) != null;
+    }
+
+    public void put(UUID uuid, HPlayer player) {
+        if (uuid == null || player == null) {
+            return;
+        }
+
+        List<Map.Entry<UUID, HPlayer>> evicted;
+        synchronized (this.entries) {
+            this.entries.put(uuid, new Entry(player, System.currentTimeMillis() + ttlFor(player)));
+            this.version++;
+            evicted = evictOverflow();
+        }
+        notifyEvicted(evicted);
+    }
+
+    /**
+     * Replaces the player only if the cache still holds {@code expected} for that UUID
+     */
+    public boolean replace(UUID uuid, HPlayer expected, HPlayer replacement) {
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(uuid);
+            if (entry == null || entry.player != expected) {
+                return false;
+            }
+
+            this.entries.put(uuid, new Entry(replacement, System.currentTimeMillis() + ttlFor(replacement)));
+            this.version++;
+            return true;
+        }
+    }
+
+    public HPlayer remove(UUID uuid) {
+        synchronized (this.entries) {
+            Entry removed = this.entries.remove(uuid);
+            if (removed == null) {
+                return null;
+            }
+
+            this.version++;
+            return removed.player;
+        }
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+            this.version++;
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * @return Snapshot of the cached players, least recently used first
+     */
+    public List<HPlayer> values() {
+        synchronized (this.entries) {
+            List<HPlayer> players = new ArrayList<>(this.entries.size());
+            for (Entry entry : this.entries.values()) {
+                players.add(entry.player);
+            }
+            return players;
+        }
+    }
+
+    public List<UUID> keys() {
+        synchronized (this.entries) {
+            return new ArrayList<>(this.entries.keySet());
+        }
+    }
+
+    /**
+     * Drops every expired entry. Expiry is otherwise only noticed lazily on access.
+     */
+    public void purgeExpired() {
+        List<Map.Entry<UUID, HPlayer>> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this.entries) {
+            Iterator<Map.Entry<UUID, Entry>> iterator = this.entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, Entry> entry = iterator.next();
+                if (entry.getValue().isExpired(now)) {
+                    expired.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().player));
+                    iterator.remove();
+                }
+            }
+            if (!expired.isEmpty()) {
+                this.version++;
+            }
+        }
+        notifyEvicted(expired);
+    }
+
+    public void setMaxSize(int maxSize) {
+        List<Map.Entry<UUID, HPlayer>> evicted;
+        synchronized (this.entries) {
+            this.maxSize = Math.max(1, maxSize);
+            evicted = evictOverflow();
+        }
+        notifyEvicted(evicted);
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /* must hold the lock; each step is O(1), pinned players are moved to the back instead of evicted */
+    private List<Map.Entry<UUID, HPlayer>> evictOverflow() {
+        int overflow = this.entries.size() - this.maxSize;
+        if (overflow <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Map.Entry<UUID, HPlayer>> evicted = new ArrayList<>(overflow);
+        // Bound the pinned skips so a cache made entirely of present players still shrinks
+        int skipsLeft = this.entries.size();
+        while (this.entries.size() > this.maxSize) {
+            Iterator<Map.Entry<UUID, Entry>> iterator = this.entries.entrySet().iterator();
+            Map.Entry<UUID, Entry> eldest = iterator.next();
+            if (skipsLeft-- > 0 && this.pinned.test(eldest.getKey())) {
+                // Touch it so it moves to the most recently used end
+                this.entries.get(eldest.getKey());
+                continue;
+            }
+
+            iterator.remove();
+            this.version++;
+            evicted.add(new AbstractMap.SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue().player));
+        }
+        return evicted;
+    }
+
+    private void notifyEvicted(List<Map.Entry<UUID, HPlayer>> evicted) {
+        for (Map.Entry<UUID, HPlayer> entry : evicted) {
+            try {
+                this.evictionListener.accept(entry.getKey(), entry.getValue());
+            } catch (RuntimeException ignored) {
+                // A failing listener must not leave later evictions uncleaned
+            }
+        }
+    }
+
+    private static long ttlFor(HPlayer player) {
+        if (player.isNicked()) {
+            return NICKED_TTL_MILLIS;
+        }
+        return player.hasGameData() ? FULL_TTL_MILLIS : NO_DATA_TTL_MILLIS;
+    }
+
+    private static final class Entry {
+        private final HPlayer player;
+        private final long expiresAt;
+
+        private Entry(HPlayer player, long expiresAt) {
+            this.player = player;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= this.expiresAt;
+        }
+    }
+}
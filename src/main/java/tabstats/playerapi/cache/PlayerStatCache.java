@@ -0,0 +1,99 @@
+package tabstats.playerapi.cache;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent cache of projected player stats, stored next to config.json as one JSON object per line
+ * through a {@link JsonLinesStore}, so it never needs to be rewritten on the hot path.
+ */
+public class PlayerStatCache extends JsonLinesStore<UUID, PlayerStatCache.Entry> {
+    private static final String CACHE_FILENAME = "players.jsonl";
+    /* Entries younger than this are served without asking Hypixel again */
+    private static final long FRESH_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    /* Entries older than this are dropped */
+    private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(14);
+    private static final int MAX_ENTRIES = 3000;
+
+    public PlayerStatCache() {
+        super(CACHE_FILENAME, MAX_ENTRIES);
+    }
+
+    /**
+     * @param uuid Player's UUID
+     * @param projectedObject Trimmed player object as returned by {@link tabstats.playerapi.api.HypixelAPI#getWholeObject(String)}
+     */
+    public void store(UUID uuid, JsonObject projectedObject) {
+        if (uuid == null || projectedObject == null) {
+            return;
+        }
+
+        put(uuid, new Entry(projectedObject, System.currentTimeMillis()));
+    }
+
+    public void invalidate(UUID uuid) {
+        if (uuid == null) {
+            return;
+        }
+
+        remove(uuid);
+    }
+
+    @Override
+    protected UUID readKey(JsonObject line) {
+        return UUID.fromString(line.get("uuid").getAsString());
+    }
+
+    @Override
+    protected void writeKey(JsonObject line, UUID uuid) {
+        line.addProperty("uuid", uuid.toString());
+    }
+
+    @Override
+    protected Entry readValue(JsonObject line) {
+        JsonElement player = line.get("player");
+        if (player == null || !player.isJsonObject()) {
+            return null;
+        }
+
+        JsonObject projected = new JsonObject();
+        projected.add("player", player);
+        return new Entry(projected, line.get("fetchedAt").getAsLong());
+    }
+
+    @Override
+    protected void writeValue(JsonObject line, Entry entry) {
+        line.addProperty("fetchedAt", entry.fetchedAt);
+        line.add("player", entry.projectedObject.get("player"));
+    }
+
+    @Override
+    protected boolean isExpired(Entry entry, long now) {
+        return now - entry.fetchedAt > MAX_AGE_MILLIS;
+    }
+
+    public static final class Entry {
+        private final JsonObject projectedObject;
+        private final long fetchedAt;
+
+        private Entry(JsonObject projectedObject, long fetchedAt) {
+            this.projectedObject = projectedObject;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public JsonObject getProjectedObject() {
+            return this.projectedObject;
+        }
+
+        public long getFetchedAt() {
+            return this.fetchedAt;
+        }
+
+        public boolean isStale() {
+            return System.currentTimeMillis() - this.fetchedAt > FRESH_MILLIS;
+        }
+    }
+}
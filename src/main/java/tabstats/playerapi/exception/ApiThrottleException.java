@@ -2,13 +2,31 @@ package tabstats.playerapi.exception;
 
 public class ApiThrottleException extends ApiRequestException {
     private final boolean global;
+    private final long retryAfterMillis;
 
     public ApiThrottleException(boolean global) {
-        super(global ? "Hypixel API is currently throttling all requests" : "Hypixel API key is being throttled");
+        this(global, -1L);
+    }
+
+    /**
+     * @param global Whether Hypixel is throttling everyone rather than just this key
+     * @param retryAfterMillis How long until requests should succeed again, or -1 if unknown
+     */
+    public ApiThrottleException(boolean global, long retryAfterMillis) {
+        this(global ? "Hypixel API is currently throttling all requests" : "Hypixel API key is being throttled", global, retryAfterMillis);
+    }
+
+    protected ApiThrottleException(String message, boolean global, long retryAfterMillis) {
+        super(message);
         this.global = global;
+        this.retryAfterMillis = retryAfterMillis;
     }
 
     public boolean isGlobal() {
         return global;
     }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
 }
@@ -0,0 +1,8 @@
+package tabstats.playerapi.exception;
+
+/* Thrown before a request is sent when the key has no rate limit budget left until the window resets */
+public class RateLimitedException extends ApiThrottleException {
+    public RateLimitedException(long retryAfterMillis) {
+        super("Holding request until the Hypixel rate limit resets", false, retryAfterMillis);
+    }
+}
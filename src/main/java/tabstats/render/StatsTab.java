@@ -1,13 +1,15 @@
 package tabstats.render;
 
 import tabstats.TabStats;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Histogram;
+import tabstats.metrics.Metrics;
 import tabstats.playerapi.HPlayer;
 import tabstats.playerapi.StatWorld;
-import tabstats.playerapi.api.stats.Stat;
-import tabstats.playerapi.api.stats.StatDouble;
-import tabstats.playerapi.api.stats.StatInt;
-import tabstats.playerapi.api.stats.StatString;
+import tabstats.playerapi.api.games.HGameBase;
+import tabstats.playerapi.api.stats.StatColumns;
 import tabstats.util.ChatColor;
+import tabstats.util.NameKey;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.Ordering;
 import com.mojang.authlib.GameProfile;
@@ -36,9 +38,13 @@ import org.apache.commons.lang3.text.WordUtils;
 import org.lwjgl.opengl.GL11;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
@@ -47,6 +53,12 @@ public class StatsTab extends GuiPlayerTabOverlay {
     private static final int MAX_TAB_PLAYERS = 80;
     private static final Pattern VALID_USERNAME = Pattern.compile("^[A-Za-z0-9_]{3,16}$");
     private static final String MAX_RANK_SAMPLE = ChatColor.BOLD + "[YOUTUBE] WWWWWWWWWWWWWWWW";
+    private static final String[] EMPTY_STATS = new String[0];
+    private static final int[] EMPTY_OFFSETS = new int[0];
+    /* The tab list counts as closed once it has not been drawn for this long */
+    private static final long VISIBLE_ROWS_TIMEOUT_MS = 250L;
+    private static final Histogram RENDER_TIME = Metrics.histogram("tab.render");
+    private static final Counter LAYOUT_REBUILDS = Metrics.counter("tab.layout.rebuilds");
     private final Minecraft mc;
     private final GuiIngame guiIngame;
     private IChatComponent footer;
@@ -64,6 +76,16 @@ public class StatsTab extends GuiPlayerTabOverlay {
     private int maxVisiblePlayers = 0;
     private final float scrollSpeed = 0.2f; // Animation smoothness factor
     private int lastPlayerListSize = 0;
+    /* Retained layout, replayed every frame until one of its inputs changes */
+    private TabLayout layout;
+    /* Players in the rows currently on screen, read by the lookup queue to prioritise them */
+    private volatile Set<UUID> visibleRowIds = Collections.emptySet();
+    private volatile long lastRenderTime;
+    private TabLayout visibleLayout;
+    private int visibleStartIndex = -1;
+    private int visibleEndIndex = -1;
+    /* Bumped whenever the set of visible rows changes */
+    private volatile int visibleRowsRevision;
 
     public StatsTab(Minecraft mcIn, GuiIngame guiIngameIn) {
         super(mcIn, guiIngameIn);
@@ -160,35 +182,53 @@ public class StatsTab extends GuiPlayerTabOverlay {
         targetScrollOffset = 0.0f;
     }
     
-    public void renderNewPlayerlist(int width, Scoreboard scoreboardIn, ScoreObjective scoreObjectiveIn, List<Stat> gameStatTitleList, String gamemode) {
+    public void renderNewPlayerlist(int width, Scoreboard scoreboardIn, ScoreObjective scoreObjectiveIn, StatColumns gameStatTitleList, String gamemode) {
+        long started = System.nanoTime();
+        try {
+            drawPlayerlist(width, scoreboardIn, scoreObjectiveIn, gameStatTitleList, gamemode);
+        } finally {
+            RENDER_TIME.recordSince(started);
+        }
+    }
+
+    private void drawPlayerlist(int width, Scoreboard scoreboardIn, ScoreObjective scoreObjectiveIn, StatColumns gameStatTitleList, String gamemode) {
         NetHandlerPlayClient netHandler = this.mc.thePlayer.sendQueue;
         StatWorld statWorld = TabStats.getTabStats().getStatWorld();
-        List<NetworkPlayerInfo> playerList = collectEligiblePlayers(netHandler, statWorld);
-
         ScaledResolution scaledRes = new ScaledResolution(this.mc);
-        int baseY = 20;
-        int fontHeight = this.mc.fontRendererObj.FONT_HEIGHT;
-        int textColor = ChatColor.WHITE.getRGB();
 
-        TextBlock headerBlock = createTextBlock(this.renderHeaderFooter ? this.header : null);
-        TextBlock footerBlock = createTextBlock(this.renderHeaderFooter ? this.footer : null);
-        int headerHeight = headerBlock.height(fontHeight);
-        int footerHeight = footerBlock.height(fontHeight);
-        int footerSpacing = footerBlock.hasLines() ? 1 : 0;
-
-        int startingY = baseY + headerHeight + (headerBlock.hasLines() ? 1 : 0);
+        // Steady-state frames only pay for this signature, the layout itself is rebuilt on change
+        LayoutKey key = new LayoutKey(
+                computePlayerListSignature(netHandler.getPlayerInfoMap()),
+                statWorld == null ? 0 : statWorld.getPlayerVersion(),
+                HGameBase.getStatRevision(),
+                scaledRes.getScaledWidth(),
+                scaledRes.getScaledHeight(),
+                width,
+                gamemode,
+                gameStatTitleList,
+                scoreObjectiveIn,
+                scoreObjectiveIn == null ? null : scoreObjectiveIn.getDisplayName(),
+                this.renderHeaderFooter ? this.header : null,
+                this.renderHeaderFooter ? this.footer : null
+        );
 
-        String objectiveName = "";
-        if (scoreObjectiveIn != null) {
-            objectiveName = WordUtils.capitalize(scoreObjectiveIn.getDisplayName().replace("_", ""));
+        TabLayout layout = this.layout;
+        if (layout == null || !layout.key.equals(key)) {
+            layout = buildLayout(key, netHandler, statWorld, scaledRes);
+            this.layout = layout;
+            LAYOUT_REBUILDS.increment();
         }
-        int objectiveLabelWidth = objectiveName.isEmpty() ? 0 : 5 + this.mc.fontRendererObj.getStringWidth(objectiveName);
 
-        playerList = playerList.subList(0, Math.min(playerList.size(), MAX_TAB_PLAYERS));
-        int playerListSize = playerList.size();
-        this.lastPlayerListSize = playerListSize;
+        int fontHeight = this.mc.fontRendererObj.FONT_HEIGHT;
+        int textColor = ChatColor.WHITE.getRGB();
+        int baseY = layout.baseY;
+        int startingY = layout.startingY;
+        int startingX = layout.startingX;
+        int contentRight = layout.contentRight;
 
-        this.maxVisiblePlayers = calculateMaxVisiblePlayers(scaledRes, startingY, footerHeight, footerSpacing);
+        int playerListSize = layout.rows.size();
+        this.lastPlayerListSize = playerListSize;
+        this.maxVisiblePlayers = layout.maxVisiblePlayers;
 
         targetScrollOffset = MathHelper.clamp_float(targetScrollOffset, 0.0f, Math.max(0, playerListSize - maxVisiblePlayers));
         if (scrollOffset < 0.0f) {
@@ -199,39 +239,26 @@ public class StatsTab extends GuiPlayerTabOverlay {
 
         int startIndex = Math.max(0, Math.min((int)Math.floor(scrollOffset), playerListSize - maxVisiblePlayers));
         int endIndex = Math.min(playerListSize, startIndex + maxVisiblePlayers);
-        List<NetworkPlayerInfo> visiblePlayers = playerList.subList(startIndex, endIndex);
-        int visiblePlayerCount = visiblePlayers.size();
-
-        width = Math.max(width, Math.max(headerBlock.getMaxWidth(), footerBlock.getMaxWidth()));
-
-        int totalContentWidth = width + objectiveLabelWidth;
-        int leftBound = scaledRes.getScaledWidth() / 2 - totalContentWidth / 2;
-        int startingX = leftBound + objectiveLabelWidth;
-        int contentRight = startingX + width;
+        int visiblePlayerCount = endIndex - startIndex;
+        publishVisibleRows(layout, startIndex, endIndex);
 
         int textBaselineOffset = this.entryHeight / 2 - 4;
         int playerSectionHeight = (visiblePlayerCount + 1) * (this.entryHeight + 1);
         drawRect(
-                leftBound - this.backgroundBorderSize,
+                layout.leftBound - this.backgroundBorderSize,
                 baseY - this.backgroundBorderSize,
-                leftBound + totalContentWidth + this.backgroundBorderSize,
-                startingY + playerSectionHeight - 1 + footerSpacing + footerHeight + this.backgroundBorderSize,
+                layout.leftBound + layout.totalContentWidth + this.backgroundBorderSize,
+                startingY + playerSectionHeight - 1 + layout.footerSpacing + layout.footerHeight + this.backgroundBorderSize,
                 Integer.MIN_VALUE
         );
 
         drawRect(startingX, startingY, contentRight, startingY + this.entryHeight, 553648127);
 
-        int contentCenterX = startingX + Math.round(width / 2.0f);
-        drawCenteredLines(headerBlock, baseY, contentCenterX, fontHeight, textColor);
-
-        int nameColumnStartX = startingX + headSize + 2;
-        int nameColumnWidth = this.mc.fontRendererObj.getStringWidth(MAX_RANK_SAMPLE) + 10;
-        this.mc.fontRendererObj.drawStringWithShadow(ChatColor.BOLD + "NAME", nameColumnStartX, startingY + textBaselineOffset, textColor);
-        this.mc.fontRendererObj.drawStringWithShadow(objectiveName, startingX - objectiveLabelWidth, startingY + textBaselineOffset, textColor);
+        drawCenteredLines(layout.headerBlock, baseY, layout.contentCenterX, fontHeight, textColor);
 
-        List<StatColumn> statColumns = buildStatColumns(gameStatTitleList);
-        int statColumnStartX = nameColumnStartX + nameColumnWidth;
-        drawStatHeaders(statColumns, statColumnStartX, startingY + textBaselineOffset, textColor);
+        this.mc.fontRendererObj.drawStringWithShadow(ChatColor.BOLD + "NAME", layout.nameColumnStartX, startingY + textBaselineOffset, textColor);
+        this.mc.fontRendererObj.drawStringWithShadow(layout.objectiveName, startingX - layout.objectiveLabelWidth, startingY + textBaselineOffset, textColor);
+        drawStatHeaders(layout.statColumns, layout.statColumnStartX, startingY + textBaselineOffset, textColor);
 
         int headerBottomY = startingY + this.entryHeight + 1;
         int ySpacer = headerBottomY - (int)(MathHelper.clamp_float(scrollOffset - startIndex, 0.0f, 0.999f) * (this.entryHeight + 1));
@@ -244,7 +271,10 @@ public class StatsTab extends GuiPlayerTabOverlay {
                 (scaledRes.getScaledHeight() - headerBottomY) * scaledRes.getScaleFactor()
         );
 
-        for (NetworkPlayerInfo playerInfo : visiblePlayers) {
+        boolean drawHeads = this.mc.isIntegratedServerRunning() || this.mc.getNetHandler().getNetworkManager().getIsencrypted();
+        for (int index = startIndex; index < endIndex; index++) {
+            TabRow row = layout.rows.get(index);
+            NetworkPlayerInfo playerInfo = row.playerInfo;
             int xSpacer = startingX;
             drawRect(xSpacer, ySpacer, contentRight, ySpacer + this.entryHeight, 553648127);
 
@@ -253,10 +283,10 @@ public class StatsTab extends GuiPlayerTabOverlay {
             GlStateManager.enableBlend();
             GlStateManager.tryBlendFuncSeparate(770, 771, 1, 0);
 
-            String name = this.getPlayerName(playerInfo);
             GameProfile gameProfile = playerInfo.getGameProfile();
 
-            if ((this.mc.isIntegratedServerRunning() || this.mc.getNetHandler().getNetworkManager().getIsencrypted()) && playerInfo.getLocationSkin() != null) {
+            // Skins load asynchronously and hat/cape layers can toggle, so heads stay live
+            if (drawHeads && playerInfo.getLocationSkin() != null) {
                 EntityPlayer entityPlayer = this.mc.theWorld.getPlayerEntityByUUID(gameProfile.getId());
                 boolean upsideDown = entityPlayer != null && entityPlayer.isWearing(EnumPlayerModelParts.CAPE) && ("Dinnerbone".equals(gameProfile.getName()) || "Grumm".equals(gameProfile.getName()));
                 this.mc.getTextureManager().bindTexture(playerInfo.getLocationSkin());
@@ -271,39 +301,13 @@ public class StatsTab extends GuiPlayerTabOverlay {
 
             xSpacer += headSize + 2;
 
-            if (playerInfo.getGameType() != WorldSettings.GameType.SPECTATOR) {
-                HPlayer hPlayer = statWorld == null ? null : statWorld.getPlayerByIdentity(
-                        gameProfile.getId(),
-                        playerInfo.getDisplayName() != null ? playerInfo.getDisplayName().getFormattedText() : null,
-                        gameProfile.getName()
-                );
-                if (hPlayer != null) {
-                    if (hPlayer.isNicked()) {
-                        name = this.getHPlayerName(playerInfo, hPlayer);
-                    } else {
-                        if (name.contains(ChatColor.OBFUSCATE.toString())) {
-                            ScorePlayerTeam liveTeam = playerInfo.getPlayerTeam();
-                            String teamPrefix = liveTeam != null ? liveTeam.getColorPrefix() : "";
-                            String color = teamPrefix.isEmpty() ? hPlayer.getPlayerRankColor() : teamPrefix;
-                            name = color + hPlayer.getPlayerName();
-                        } else {
-                            name = this.getHPlayerName(playerInfo, hPlayer);
-                        }
-                    }
+            if (!row.spectator) {
+                drawRowStats(row, layout.statColumnStartX, ySpacer + textBaselineOffset, textColor);
+                this.mc.fontRendererObj.drawStringWithShadow(row.name, xSpacer, ySpacer + textBaselineOffset, -1);
 
-                    if (gamemode != null) {
-                        List<Stat> statList = resolveStats(hPlayer, gamemode);
-                        if (!statList.isEmpty()) {
-                            drawPlayerStats(statList, statColumns, statColumnStartX, ySpacer + textBaselineOffset, textColor);
-                        }
-                    }
+                if (scoreObjectiveIn != null) {
+                    this.drawScoreboardValues(scoreObjectiveIn, ySpacer, gameProfile.getName(), xSpacer, startingX - 5, playerInfo);
                 }
-
-                this.mc.fontRendererObj.drawStringWithShadow(name, xSpacer, ySpacer + textBaselineOffset, -1);
-            }
-
-            if (scoreObjectiveIn != null && playerInfo.getGameType() != WorldSettings.GameType.SPECTATOR) {
-                this.drawScoreboardValues(scoreObjectiveIn, ySpacer, gameProfile.getName(), xSpacer, startingX - 5, playerInfo);
             }
 
             ySpacer += this.entryHeight + 1;
@@ -328,8 +332,162 @@ public class StatsTab extends GuiPlayerTabOverlay {
             }
         }
 
-        int footerY = startingY + playerSectionHeight + footerSpacing;
-        drawCenteredLines(footerBlock, footerY, contentCenterX, fontHeight, textColor);
+        int footerY = startingY + playerSectionHeight + layout.footerSpacing;
+        drawCenteredLines(layout.footerBlock, footerY, layout.contentCenterX, fontHeight, textColor);
+    }
+
+    /**
+     * @return Whether the player's row was on screen in the last rendered frame of a tab list that is still open
+     */
+    public boolean isRowVisible(UUID uuid) {
+        return isShowingRows() && this.visibleRowIds.contains(uuid);
+    }
+
+    /**
+     * @return Whether the tab list was rendered recently enough for {@link #isRowVisible(UUID)} to report anything
+     */
+    public boolean isShowingRows() {
+        return Minecraft.getSystemTime() - this.lastRenderTime <= VISIBLE_ROWS_TIMEOUT_MS;
+    }
+
+    /**
+     * @return Counter that changes whenever scrolling or a layout rebuild changes which rows are visible
+     */
+    public int getVisibleRowsRevision() {
+        return this.visibleRowsRevision;
+    }
+
+    private void publishVisibleRows(TabLayout layout, int startIndex, int endIndex) {
+        this.lastRenderTime = Minecraft.getSystemTime();
+        if (layout == this.visibleLayout && startIndex == this.visibleStartIndex && endIndex == this.visibleEndIndex) {
+            return;
+        }
+
+        Set<UUID> ids = new HashSet<>();
+        for (int index = startIndex; index < endIndex; index++) {
+            GameProfile profile = layout.rows.get(index).playerInfo.getGameProfile();
+            if (profile != null && profile.getId() != null) {
+                ids.add(profile.getId());
+            }
+        }
+
+        this.visibleRowIds = ids;
+        this.visibleLayout = layout;
+        this.visibleStartIndex = startIndex;
+        this.visibleEndIndex = endIndex;
+        this.visibleRowsRevision++;
+    }
+
+    /**
+     * Cheap order-independent fingerprint of everything in the player list that affects layout:
+     * which entries exist, their game mode, team (and its prefix/suffix) and display name.
+     */
+    private long computePlayerListSignature(Collection<NetworkPlayerInfo> playerInfos) {
+        long signature = playerInfos.size();
+        for (NetworkPlayerInfo info : playerInfos) {
+            long entry = System.identityHashCode(info);
+            WorldSettings.GameType gameType = info.getGameType();
+            entry = entry * 31 + (gameType == null ? -1 : gameType.ordinal());
+
+            ScorePlayerTeam team = info.getPlayerTeam();
+            if (team != null) {
+                entry = entry * 31 + System.identityHashCode(team);
+                entry = entry * 31 + team.getColorPrefix().hashCode();
+                entry = entry * 31 + team.getColorSuffix().hashCode();
+            }
+
+            entry = entry * 31 + System.identityHashCode(info.getDisplayName());
+            // Mix each entry before summing so swapped fields between players do not cancel out
+            entry *= 0x9E3779B97F4A7C15L;
+            signature += entry ^ (entry >>> 29);
+        }
+        return signature;
+    }
+
+    private TabLayout buildLayout(LayoutKey key, NetHandlerPlayClient netHandler, StatWorld statWorld, ScaledResolution scaledRes) {
+        List<NetworkPlayerInfo> playerList = collectEligiblePlayers(netHandler, statWorld);
+        playerList = playerList.subList(0, Math.min(playerList.size(), MAX_TAB_PLAYERS));
+
+        int fontHeight = this.mc.fontRendererObj.FONT_HEIGHT;
+        TabLayout layout = new TabLayout(key);
+        layout.baseY = 20;
+        layout.headerBlock = createTextBlock(key.header);
+        layout.footerBlock = createTextBlock(key.footer);
+        int headerHeight = layout.headerBlock.height(fontHeight);
+        layout.footerHeight = layout.footerBlock.height(fontHeight);
+        layout.footerSpacing = layout.footerBlock.hasLines() ? 1 : 0;
+        layout.startingY = layout.baseY + headerHeight + (layout.headerBlock.hasLines() ? 1 : 0);
+
+        layout.objectiveName = "";
+        if (key.objective != null) {
+            layout.objectiveName = WordUtils.capitalize(key.objectiveDisplayName.replace("_", ""));
+        }
+        layout.objectiveLabelWidth = layout.objectiveName.isEmpty() ? 0 : 5 + this.mc.fontRendererObj.getStringWidth(layout.objectiveName);
+        layout.maxVisiblePlayers = calculateMaxVisiblePlayers(scaledRes, layout.startingY, layout.footerHeight, layout.footerSpacing);
+
+        int width = Math.max(key.width, Math.max(layout.headerBlock.getMaxWidth(), layout.footerBlock.getMaxWidth()));
+        layout.totalContentWidth = width + layout.objectiveLabelWidth;
+        layout.leftBound = scaledRes.getScaledWidth() / 2 - layout.totalContentWidth / 2;
+        layout.startingX = layout.leftBound + layout.objectiveLabelWidth;
+        layout.contentRight = layout.startingX + width;
+        layout.contentCenterX = layout.startingX + Math.round(width / 2.0f);
+
+        layout.nameColumnStartX = layout.startingX + headSize + 2;
+        int nameColumnWidth = this.mc.fontRendererObj.getStringWidth(MAX_RANK_SAMPLE) + 10;
+        layout.statColumns = buildStatColumns(key.titles);
+        layout.statColumnStartX = layout.nameColumnStartX + nameColumnWidth;
+
+        layout.rows = new ArrayList<>(playerList.size());
+        for (NetworkPlayerInfo playerInfo : playerList) {
+            layout.rows.add(buildRow(playerInfo, statWorld, key.gamemode, layout.statColumns));
+        }
+
+        return layout;
+    }
+
+    private TabRow buildRow(NetworkPlayerInfo playerInfo, StatWorld statWorld, String gamemode, List<StatColumn> statColumns) {
+        boolean spectator = playerInfo.getGameType() == WorldSettings.GameType.SPECTATOR;
+        String name = this.getPlayerName(playerInfo);
+        if (spectator) {
+            return new TabRow(playerInfo, name, true, EMPTY_STATS, EMPTY_OFFSETS);
+        }
+
+        GameProfile gameProfile = playerInfo.getGameProfile();
+        HPlayer hPlayer = statWorld == null ? null : statWorld.getPlayerByIdentity(
+                gameProfile.getId(),
+                playerInfo.getDisplayName() != null ? playerInfo.getDisplayName().getFormattedText() : null,
+                gameProfile.getName()
+        );
+        if (hPlayer == null) {
+            return new TabRow(playerInfo, name, false, EMPTY_STATS, EMPTY_OFFSETS);
+        }
+
+        if (hPlayer.isNicked()) {
+            name = this.getHPlayerName(playerInfo, hPlayer);
+        } else if (name.contains(ChatColor.OBFUSCATE.toString())) {
+            ScorePlayerTeam liveTeam = playerInfo.getPlayerTeam();
+            String teamPrefix = liveTeam != null ? liveTeam.getColorPrefix() : "";
+            String color = teamPrefix.isEmpty() ? hPlayer.getPlayerRankColor() : teamPrefix;
+            name = color + hPlayer.getPlayerName();
+        } else {
+            name = this.getHPlayerName(playerInfo, hPlayer);
+        }
+
+        if (gamemode == null) {
+            return new TabRow(playerInfo, name, false, EMPTY_STATS, EMPTY_OFFSETS);
+        }
+
+        StatColumns stats = resolveStats(hPlayer, gamemode);
+        String[] values = new String[stats.size()];
+        int[] offsets = new int[stats.size()];
+        int x = 0;
+        for (int i = 0; i < stats.size(); i++) {
+            values[i] = stats.getValue(i);
+            offsets[i] = x;
+            x += i < statColumns.size() ? statColumns.get(i).width : measureColumnWidth(stats.getTitle(i));
+        }
+
+        return new TabRow(playerInfo, name, false, values, offsets);
     }
 
     private TextBlock createTextBlock(IChatComponent component) {
@@ -361,14 +519,14 @@ public class StatsTab extends GuiPlayerTabOverlay {
         }
     }
 
-    private List<StatColumn> buildStatColumns(List<Stat> stats) {
+    private List<StatColumn> buildStatColumns(StatColumns stats) {
         if (stats == null || stats.isEmpty()) {
             return Collections.emptyList();
         }
 
         List<StatColumn> columns = new ArrayList<>(stats.size());
-        for (Stat stat : stats) {
-            String label = formatStatLabel(stat);
+        for (int i = 0; i < stats.size(); i++) {
+            String label = formatStatLabel(stats.getTitle(i));
             int columnWidth = this.mc.fontRendererObj.getStringWidth(label) + 10;
             columns.add(new StatColumn(label, columnWidth));
         }
@@ -384,54 +542,32 @@ public class StatsTab extends GuiPlayerTabOverlay {
         }
     }
 
-    private void drawPlayerStats(List<Stat> stats, List<StatColumn> columns, int startX, int baselineY, int color) {
-        int x = startX;
-        for (int i = 0; i < stats.size(); i++) {
-            Stat stat = stats.get(i);
-            this.mc.fontRendererObj.drawStringWithShadow(formatStatValue(stat), x, baselineY, color);
-            int columnWidth = i < columns.size() ? columns.get(i).width : measureColumnWidth(stat);
-            x += columnWidth;
+    private void drawRowStats(TabRow row, int startX, int baselineY, int color) {
+        for (int i = 0; i < row.statValues.length; i++) {
+            this.mc.fontRendererObj.drawStringWithShadow(row.statValues[i], startX + row.statOffsets[i], baselineY, color);
         }
     }
 
-    private List<Stat> resolveStats(HPlayer player, String gamemode) {
+    private StatColumns resolveStats(HPlayer player, String gamemode) {
         if (player == null || gamemode == null) {
-            return Collections.emptyList();
+            return StatColumns.EMPTY;
         }
 
-        List<Stat> stats = player.getFormattedGameStats(gamemode);
-        if (stats == null || stats.isEmpty()) {
+        StatColumns stats = player.getFormattedGameStats(gamemode);
+        if (stats.isEmpty()) {
             stats = player.getFormattedGameStats("BEDWARS");
         }
 
-        return stats == null ? Collections.emptyList() : stats;
+        return stats;
     }
 
-    private String formatStatValue(Stat stat) {
-        if (stat == null) {
-            return "";
-        }
-
-        switch (stat.getType()) {
-            case INT:
-                return Integer.toString(((StatInt) stat).getValue());
-            case DOUBLE:
-                return Double.toString(((StatDouble) stat).getValue());
-            case STRING:
-                return ((StatString) stat).getValue();
-            default:
-                return "";
-        }
-    }
-
-    private String formatStatLabel(Stat stat) {
-        String statName = stat == null ? "" : stat.getStatName();
-        String normalized = statName == null ? "" : statName.toUpperCase();
+    private String formatStatLabel(String title) {
+        String normalized = title == null ? "" : title.toUpperCase();
         return ChatColor.BOLD + normalized;
     }
 
-    private int measureColumnWidth(Stat stat) {
-        return this.mc.fontRendererObj.getStringWidth(formatStatLabel(stat)) + 10;
+    private int measureColumnWidth(String title) {
+        return this.mc.fontRendererObj.getStringWidth(formatStatLabel(title)) + 10;
     }
 
     private List<NetworkPlayerInfo> collectEligiblePlayers(NetHandlerPlayClient netHandler, StatWorld statWorld) {
@@ -467,8 +603,8 @@ public class StatsTab extends GuiPlayerTabOverlay {
             }
         }
 
-        String strippedName = ChatColor.stripColor(this.getPlayerName(playerInfo));
-        if (strippedName != null && strippedName.trim().startsWith("[NPC]")) {
+        String nameKey = NameKey.of(this.getPlayerName(playerInfo));
+        if (nameKey != null && nameKey.startsWith("[npc]")) {
             return false;
         }
 
@@ -585,6 +721,109 @@ public class StatsTab extends GuiPlayerTabOverlay {
         }
     }
 
+    /* Everything the tab list needs to redraw a frame, valid for as long as its key matches */
+    private static final class TabLayout {
+        private final LayoutKey key;
+        private List<TabRow> rows;
+        private List<StatColumn> statColumns;
+        private TextBlock headerBlock;
+        private TextBlock footerBlock;
+        private String objectiveName;
+        private int objectiveLabelWidth;
+        private int baseY;
+        private int startingY;
+        private int footerHeight;
+        private int footerSpacing;
+        private int maxVisiblePlayers;
+        private int totalContentWidth;
+        private int leftBound;
+        private int startingX;
+        private int contentRight;
+        private int contentCenterX;
+        private int nameColumnStartX;
+        private int statColumnStartX;
+
+        private TabLayout(LayoutKey key) {
+            this.key = key;
+        }
+    }
+
+    /* Inputs a layout was built from; object-valued inputs are compared by identity since Minecraft replaces rather than mutates them */
+    private static final class LayoutKey {
+        private final long playerListSignature;
+        private final int playerVersion;
+        private final int statRevision;
+        private final int screenWidth;
+        private final int screenHeight;
+        private final int width;
+        private final String gamemode;
+        private final StatColumns titles;
+        private final ScoreObjective objective;
+        private final String objectiveDisplayName;
+        private final IChatComponent header;
+        private final IChatComponent footer;
+
+        private LayoutKey(long playerListSignature, int playerVersion, int statRevision, int screenWidth, int screenHeight, int width,
+                          String gamemode, StatColumns titles, ScoreObjective objective, String objectiveDisplayName,
+                          IChatComponent header, IChatComponent footer) {
+            this.playerListSignature = playerListSignature;
+            this.playerVersion = playerVersion;
+            this.statRevision = statRevision;
+            this.screenWidth = screenWidth;
+            this.screenHeight = screenHeight;
+            this.width = width;
+            this.gamemode = gamemode;
+            this.titles = titles;
+            this.objective = objective;
+            this.objectiveDisplayName = objectiveDisplayName;
+            this.header = header;
+            this.footer = footer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LayoutKey)) {
+                return false;
+            }
+
+            LayoutKey other = (LayoutKey) o;
+            return this.playerListSignature == other.playerListSignature
+                    && this.playerVersion == other.playerVersion
+                    && this.statRevision == other.statRevision
+                    && this.screenWidth == other.screenWidth
+                    && this.screenHeight == other.screenHeight
+                    && this.width == other.width
+                    && Objects.equals(this.gamemode, other.gamemode)
+                    && this.titles == other.titles
+                    && this.objective == other.objective
+                    && Objects.equals(this.objectiveDisplayName, other.objectiveDisplayName)
+                    && this.header == other.header
+                    && this.footer == other.footer;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.playerListSignature) * 31 + this.playerVersion;
+        }
+    }
+
+    private static final class TabRow {
+        private final NetworkPlayerInfo playerInfo;
+        private final String name;
+        private final boolean spectator;
+        private final String[] statValues;
+        /* x offset of each stat value relative to the first stat column */
+        private final int[] statOffsets;
+
+        private TabRow(NetworkPlayerInfo playerInfo, String name, boolean spectator, String[] statValues, int[] statOffsets) {
+            this.playerInfo = playerInfo;
+            this.name = name;
+            this.spectator = spectator;
+            this.statValues = statValues;
+            this.statOffsets = statOffsets;
+        }
+    }
+
     private static final class StatColumn {
         private final String label;
         private final int width;
@@ -1,8 +1,5 @@
 package tabstats.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public enum ChatColor {
     // code is for vanilla minecraft string drawing, rgb is for rendering any other way
     BLACK('0', -16777216),
@@ -29,7 +26,6 @@ public enum ChatColor {
     RESET('r', 0);
 
     public static final char COLOR_CHAR = '\u00A7';
-    private static final Pattern STRIP_COLOR_PATTERN = Pattern.compile("(?i)" + COLOR_CHAR + "[0-9A-FK-OR]");
 
     private final char code;
     private final boolean isFormat;
@@ -63,7 +59,20 @@ public enum ChatColor {
             return null;
         }
 
-        return STRIP_COLOR_PATTERN.matcher(input).replaceAll("");
+        int code = indexOfCode(input, 0);
+        if (code < 0) {
+            // Nothing to strip, hand back the same instance
+            return input;
+        }
+
+        StringBuilder stripped = new StringBuilder(input.length() - 2);
+        int from = 0;
+        while (code >= 0) {
+            stripped.append(input, from, code);
+            from = code + 2;
+            code = indexOfCode(input, from);
+        }
+        return stripped.append(input, from, input.length()).toString();
     }
 
     public static String getColor(String input) {
@@ -71,11 +80,29 @@ public enum ChatColor {
             return null;
         }
 
-        Matcher matcher = STRIP_COLOR_PATTERN.matcher(input);
-        if (matcher.find())
-            return matcher.group();
+        int code = indexOfCode(input, 0);
+        return code < 0 ? null : input.substring(code, code + 2);
+    }
+
+    /**
+     * @return Index of the next colour or format code at or after from, or -1
+     */
+    static int indexOfCode(String input, int from) {
+        int length = input.length() - 1;
+        for (int i = from; i < length; i++) {
+            if (input.charAt(i) == COLOR_CHAR && isCode(input.charAt(i + 1))) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        return null;
+    /* Same characters the old "(?i)§[0-9A-FK-OR]" pattern matched */
+    static boolean isCode(char c) {
+        return (c >= '0' && c <= '9')
+                || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')
+                || (c >= 'k' && c <= 'o') || (c >= 'K' && c <= 'O')
+                || c == 'r' || c == 'R';
     }
 
     public static ChatColor getChatColor(String input) {
@@ -0,0 +1,132 @@
+package tabstats.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Histogram;
+import tabstats.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed set of daemon threads behind a bounded queue. What happens when the queue is full is
+ * decided per lane: network work is refused so the caller can back off, while CPU work runs on
+ * the submitting thread, which slows producers down instead of growing the queue. Tasks never
+ * fail silently, every exception is counted in the lane's metrics.
+ */
+public final class ExecutionLane {
+    public enum Overflow {
+        /* execute returns false and the caller decides what to do */
+        REJECT,
+        /* the submitting thread runs the task itself */
+        CALLER_RUNS
+    }
+
+    private final String name;
+    private final Overflow overflow;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Histogram queueWait;
+
+    ExecutionLane(String name, int threads, int queueCapacity, Overflow overflow) {
+        this.name = name;
+        this.overflow = overflow;
+        this.executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("TabStats-" + name + "-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Idle lanes give their threads back, a quiet session should not hold two dozen of them
+        this.executor.allowCoreThreadTimeOut(true);
+
+        String prefix = "executor." + name;
+        this.rejected = Metrics.counter(prefix + ".rejected");
+        this.failed = Metrics.counter(prefix + ".failed");
+        this.queueWait = Metrics.histogram(prefix + ".wait");
+        Metrics.gauge(prefix + ".queue", () -> this.executor.getQueue().size());
+        Metrics.gauge(prefix + ".active", this.executor::getActiveCount);
+        Metrics.gauge(prefix + ".threads", this.executor::getMaximumPoolSize);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return false only for a {@link Overflow#REJECT} lane that is full or shut down, the task will not run
+     */
+    public boolean execute(Runnable task) {
+        return execute(task, null);
+    }
+
+    /**
+     * @param onDiscard Run instead of the task if it is still queued when {@link #discardQueued()} is called,
+     *                  so whatever the task would have released is released anyway. May be null.
+     * @return false only for a {@link Overflow#REJECT} lane that is full or shut down, the task will not run
+     */
+    public boolean execute(Runnable task, Runnable onDiscard) {
+        LaneTask wrapped = new LaneTask(task, onDiscard);
+        try {
+            this.executor.execute(wrapped);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            this.rejected.increment();
+            if (this.overflow == Overflow.CALLER_RUNS && !this.executor.isShutdown()) {
+                wrapped.run();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Drops every queued task that was submitted with a discard callback and runs those callbacks.
+     * Tasks already running are left to finish.
+     */
+    public void discardQueued() {
+        List<LaneTask> discarded = new ArrayList<>();
+        for (Runnable queued : this.executor.getQueue().toArray(new Runnable[0])) {
+            LaneTask task = (LaneTask) queued;
+            if (task.onDiscard != null && this.executor.remove(task)) {
+                discarded.add(task);
+            }
+        }
+
+        for (LaneTask task : discarded) {
+            try {
+                task.onDiscard.run();
+            } catch (RuntimeException ex) {
+                this.failed.increment();
+            }
+        }
+    }
+
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private final class LaneTask implements Runnable {
+        private final Runnable task;
+        private final Runnable onDiscard;
+        private final long queuedAt = System.nanoTime();
+
+        private LaneTask(Runnable task, Runnable onDiscard) {
+            this.task = task;
+            this.onDiscard = onDiscard;
+        }
+
+        @Override
+        public void run() {
+            queueWait.recordSince(this.queuedAt);
+            try {
+                this.task.run();
+            } catch (Throwable t) {
+                // Counted rather than rethrown, an escaping exception would only be swallowed by the pool
+                failed.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package tabstats.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Two decimal rounding and printing without DecimalFormat. Ratios of two ints are rounded on the
+ * exact fraction in whole hundredths, and digits are appended straight into a caller's buffer with
+ * '.' as the separator whatever the default locale is. Results match the old
+ * {@code new DecimalFormat("##.##")} round trip, which rounds half-even on the double's exact value.
+ */
+public final class FixedPoint {
+    /* Double.toString switches to scientific notation from here on, printing defers to it past this */
+    private static final long PLAIN_LIMIT_HUNDREDTHS = 1_000_000_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * @return numerator / denominator in whole hundredths, or numerator itself (times 100) when the denominator is 0
+     */
+    public static long hundredths(int numerator, int denominator) {
+        if (denominator == 0) {
+            return numerator * 100L;
+        }
+
+        long scaled = numerator * 100L;
+        long divisor = denominator;
+        if (divisor < 0) {
+            scaled = -scaled;
+            divisor = -divisor;
+        }
+
+        long quotient = Math.floorDiv(scaled, divisor);
+        long twiceRemainder = Math.floorMod(scaled, divisor) * 2;
+        if (twiceRemainder > divisor) {
+            return quotient + 1;
+        }
+        if (twiceRemainder < divisor) {
+            return quotient;
+        }
+        // An exact half: the double quotient may sit just either side of it, round that the way DecimalFormat did
+        return roundExact((double) numerator / (double) denominator);
+    }
+
+    /**
+     * @return numerator / denominator rounded to two decimals, numerator when the denominator is 0
+     */
+    public static double ratio(int numerator, int denominator) {
+        return hundredths(numerator, denominator) / 100D;
+    }
+
+    /**
+     * Appends the ratio the way a double holding {@link #ratio(int, int)} prints, e.g. "2.0", "1.5" or "0.33"
+     */
+    public static StringBuilder appendRatio(StringBuilder out, int numerator, int denominator) {
+        long value = hundredths(numerator, denominator);
+        if (Math.abs(value) >= PLAIN_LIMIT_HUNDREDTHS) {
+            return out.append(value / 100D);
+        }
+
+        appendHundredths(out, value, true);
+        return out;
+    }
+
+    /**
+     * @return value rounded to at most two decimals without trailing zeros, e.g. "12", "12.5" or "12.35"
+     */
+    public static String format(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.toString(value);
+        }
+        if (Math.abs(value) >= PLAIN_LIMIT_HUNDREDTHS / 100D) {
+            // Never a stat value, not worth a fast path
+            return new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN).stripTrailingZeros().toPlainString();
+        }
+
+        StringBuilder out = new StringBuilder(12);
+        appendHundredths(out, roundDouble(value), false);
+        return out.toString();
+    }
+
+    /* Half-even on the exact binary value, only falls back to BigDecimal when the value lies too close to a half to tell; |value| < 1e7 */
+    private static long roundDouble(double value) {
+        double scaled = value * 100D;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5D) > 1e-6D) {
+            return (long) floor + (fraction > 0.5D ? 1 : 0);
+        }
+        return roundExact(value);
+    }
+
+    private static long roundExact(double value) {
+        return new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+    }
+
+    /**
+     * @param keepDecimal Whether a whole number still gets ".0" like Double.toString, or no decimals like DecimalFormat
+     */
+    private static void appendHundredths(StringBuilder out, long value, boolean keepDecimal) {
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+
+        out.append(value / 100);
+        int decimals = (int) (value % 100);
+        if (decimals == 0) {
+            if (keepDecimal) {
+                out.append(".0");
+            }
+            return;
+        }
+
+        out.append('.').append((char) ('0' + decimals / 10));
+        if (decimals % 10 != 0) {
+            out.append((char) ('0' + decimals % 10));
+        }
+    }
+}
@@ -3,18 +3,34 @@ package tabstats.util;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import tabstats.metrics.Counter;
+import tabstats.metrics.Metrics;
 
-import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class Handler {
     public static final Locale LOCALE = getLocale();
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(16,
-        new ThreadFactoryBuilder().setNameFormat("TabStats-%d").setDaemon(true).build()
+    /* Network calls: lookups (at most eight at once, see FetchQueue), Urchin batches and disk cache reads */
+    private static final ExecutionLane IO = new ExecutionLane("io", 12, 64, ExecutionLane.Overflow.REJECT);
+    /* Stat parsing and formatting, kept off the network threads so slow responses never delay it */
+    private static final ExecutionLane CPU = new ExecutionLane("cpu", Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)), 256, ExecutionLane.Overflow.CALLER_RUNS);
+    /* Delays only: retries and batching windows wait here instead of sleeping on a pool thread */
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1,
+        new ThreadFactoryBuilder().setNameFormat("TabStats-scheduler").setDaemon(true).build()
     );
+    private static final Counter SCHEDULED_FAILURES = Metrics.counter("executor.scheduler.failed");
+
+    static {
+        // Cancelled retries must not linger in the queue until their due time
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+        Metrics.gauge("executor.scheduler.queue", () -> SCHEDULER.getQueue().size());
+        Runtime.getRuntime().addShutdownHook(new Thread(Handler::shutdown, "TabStats-shutdown"));
+    }
+
     private static final Gson GSON = new GsonBuilder()
             .setPrettyPrinting()
             .disableHtmlEscaping()
@@ -35,8 +51,45 @@ public class Handler {
         return new Locale(language, country);
     }
 
-    public static void asExecutor(Runnable runnable) {
-        executorService.submit(runnable);
+    public static ExecutionLane io() {
+        return IO;
+    }
+
+    public static ExecutionLane cpu() {
+        return CPU;
+    }
+
+    /**
+     * Runs a short task on the scheduler thread once the delay has passed. Anything slow should be
+     * handed on to {@link #io()} or {@link #cpu()} from there.
+     * Callers bound how much they schedule; the scheduler queue itself is not bounded.
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return SCHEDULER.schedule(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                SCHEDULED_FAILURES.increment();
+            }
+        }, Math.max(0L, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Called when leaving a world: queued work that belongs to the old lobby is dropped instead of run.
+     * The lanes themselves live for the whole session and are only shut down when the game exits.
+     * Work already running is left to finish rather than interrupted: a lookup has spent its request
+     * by then and its result still goes to the cache, and StatWorld never retries it for a player
+     * who is not in the new world. Idle lane threads time out on their own.
+     */
+    public static void discardQueuedWork() {
+        IO.discardQueued();
+        CPU.discardQueued();
+    }
+
+    private static void shutdown() {
+        SCHEDULER.shutdownNow();
+        IO.shutdown();
+        CPU.shutdown();
     }
 
     public static Gson getGson() {
@@ -47,7 +100,10 @@ public class Handler {
         return new SimpleDateFormat("EEEEE dd MMMMM yyyy", LOCALE);
     }
 
+    /**
+     * @return value rounded to at most two decimals, always with '.' as the separator
+     */
     public static String plsSplit(double value) {
-        return new DecimalFormat("##.##").format(value);
+        return FixedPoint.format(value);
     }
 }
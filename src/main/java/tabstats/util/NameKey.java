@@ -0,0 +1,91 @@
+package tabstats.util;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup keys for player and display names: colour codes stripped, trimmed and lower cased in a
+ * single scan. Tab list names come back every frame, so recent keys are cached by the raw name.
+ */
+public final class NameKey {
+    /* Roughly a few lobbies worth of names and display names, emptied rather than evicted when it fills up */
+    private static final int MAX_CACHED = 2048;
+    private static final ConcurrentHashMap<String, String> CACHE = new ConcurrentHashMap<>();
+    /* Scratch space for the scan, names are short so this rarely grows */
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+
+    private NameKey() {
+    }
+
+    /**
+     * @return The cached key for this name, see {@link #normalize(String)}
+     */
+    public static String of(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        String key = CACHE.get(name);
+        if (key != null) {
+            return key;
+        }
+
+        key = normalize(name);
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        CACHE.put(name, key);
+        return key;
+    }
+
+    /**
+     * Equivalent to {@code ChatColor.stripColor(name).trim().toLowerCase(Locale.ROOT)}
+     * @return The key, the same instance if the name already was one
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        int length = name.length();
+        char[] out = BUFFER.get();
+        if (out.length < length) {
+            out = new char[Math.max(length, out.length * 2)];
+            BUFFER.set(out);
+        }
+
+        int count = 0;
+        boolean changed = false;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c == ChatColor.COLOR_CHAR && i + 1 < length && ChatColor.isCode(name.charAt(i + 1))) {
+                i++;
+                changed = true;
+                continue;
+            }
+
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+                changed = true;
+            } else if (c >= 0x80 && (Character.isSurrogate(c) || Character.toLowerCase(c) != c)) {
+                // Non ASCII case mapping can depend on the neighbouring characters, leave it to String
+                return ChatColor.stripColor(name).trim().toLowerCase(Locale.ROOT);
+            }
+            out[count++] = c;
+        }
+
+        int start = 0;
+        int end = count;
+        while (start < end && out[start] <= ' ') {
+            start++;
+        }
+        while (end > start && out[end - 1] <= ' ') {
+            end--;
+        }
+
+        if (!changed && start == 0 && end == length) {
+            return name;
+        }
+        return new String(out, start, end - start);
+    }
+}